@@ -1,26 +1,23 @@
 package org.example.beatphobia;
 
-import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.model.UpdateOptions;
 import org.bson.Document;
-import org.example.config.MongoConfig;
-import org.openqa.selenium.By;
-import org.openqa.selenium.JavascriptExecutor;
-import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
+import org.example.browser.BrowserBackend;
+import org.example.browser.BrowserBackends;
+import org.example.common.FallbackStats;
+import org.example.common.FanOut;
+import org.example.config.HttpConfig;
+import org.example.storage.ReservationSink;
+import org.json.JSONObject;
+import org.jsoup.nodes.Element;
 
 import java.text.SimpleDateFormat;
 import java.time.Duration;
 import java.util.*;
 
 public class BeatphobiaCrawling {
-    private final MongoCollection<Document> reservationCollection;
+    private static final String BASE_URL = "https://xdungeon.net/layout/res/home.php";
+
+    private final ReservationSink reservationSink;
 
     private static class ThemeMapping {
         int id;
@@ -88,9 +85,7 @@ public class BeatphobiaCrawling {
     );
 
     public BeatphobiaCrawling() {
-        MongoClient mongoClient = MongoConfig.getMongoClient();
-        MongoDatabase database = mongoClient.getDatabase("scrd");
-        this.reservationCollection = database.getCollection("reservation");
+        this.reservationSink = ReservationSink.shared();
     }
 
     private void saveToDatabase(ThemeMapping mapping, String date, List<String> availableTimes) {
@@ -106,125 +101,208 @@ public class BeatphobiaCrawling {
                     .append("updatedAt", new Date())
                     .append("expireAt", new Date(System.currentTimeMillis() + 24L * 60 * 60 * 1000));
 
-            reservationCollection.updateOne(filter, new Document("$set", docToSave), new UpdateOptions().upsert(true));
+            reservationSink.upsert(filter, new Document("$set", docToSave));
         } catch (Exception e) {
             System.err.println("DB 저장 오류: " + e.getMessage());
         }
     }
 
-    public void crawlReservations(int days) {
+    /**
+     * (지점 URL, 날짜) 요청 단위
+     */
+    private static class FetchUnit {
+        String url;
+        String date;
+        FetchUnit(String url, String date) {
+            this.url = url;
+            this.date = date;
+        }
+    }
 
+    /**
+     * 브라우저 없이 rev.main 검색 요청(fun_search 와 같은 rev_days 파라미터)을 직접 보내 파싱한다.
+     * - 지점 × 날짜 페이지를 동시에 요청 (호스트당 동시 요청 수 제한)
+     * - 응답이 실패했거나 테마 목록(.thm_box)이 없는 (지점, 날짜)만 브라우저로 다시 시도
+     *   (그런 단위가 없으면 브라우저 세션을 빌리지 않음)
+     */
+    public void crawlReservations(int days) {
+        Map<String, List<ThemeMapping>> locationMap = groupByUrl();
+        List<String> dates = datesFrom(days);
+
+        // 첫 요청 전에 커넥션을 미리 열어 둔다
+        HttpConfig.prewarm(BASE_URL);
+
+        List<FetchUnit> units = buildUnits(dates, locationMap);
+        List<org.jsoup.nodes.Document> docs = FanOut.mapOrdered(units, HttpConfig.maxRequestsPerHost(),
+                unit -> HttpConfig.fetchDocument(unit.url + "&rev_days=" + unit.date));
+
+        List<Integer> failed = new ArrayList<>();
+        for (int i = 0; i < docs.size(); i++) {
+            org.jsoup.nodes.Document doc = docs.get(i);
+            if (doc == null || doc.selectFirst(".thm_box") == null) {
+                docs.set(i, null);
+                failed.add(i);
+            }
+        }
+        if (!failed.isEmpty()) {
+            System.err.println("⚠ [비트포비아] HTTP 응답 " + failed.size() + "/" + units.size() + "건 검증 실패, 브라우저로 다시 시도합니다.");
+            fetchWithBrowser(units, docs, failed);
+        }
+        FallbackStats.record("beatphobia", units.size(), failed.size());
 
-        // Chromedriver 경로 설정 (Docker에서 chromedriver가 /usr/local/bin에 있음)
-        System.setProperty("webdriver.chrome.driver", "/usr/local/bin/chromedriver");
+        saveResults(dates, locationMap, docs);
+    }
 
-        // Chrome 옵션 설정
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments("--headless");
-        options.addArguments("--no-sandbox");
-        options.addArguments("--disable-dev-shm-usage");
-        options.addArguments("--disable-gpu");
-        options.addArguments("--remote-allow-origins=*");
-        options.addArguments("--disable-background-networking"); // 추가
-        options.addArguments("--user-data-dir=/dev/shm/chrome-user-data");
+    /**
+     * 지점별 그룹화하여 URL당 한 번만 요청 (출력 순서 유지)
+     */
+    private static Map<String, List<ThemeMapping>> groupByUrl() {
+        Map<String, List<ThemeMapping>> locationMap = new LinkedHashMap<>();
+        for (ThemeMapping mapping : THEME_MAPPINGS) {
+            locationMap.computeIfAbsent(mapping.url, k -> new ArrayList<>()).add(mapping);
+        }
+        return locationMap;
+    }
 
-        WebDriver driver = new ChromeDriver(options);
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+    private static List<String> datesFrom(int days) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        List<String> dates = new ArrayList<>();
+        for (int i = 0; i < days; i++) {
+            Calendar calendar = Calendar.getInstance();
+            calendar.add(Calendar.DATE, i);
+            dates.add(dateFormat.format(calendar.getTime()));
+        }
+        return dates;
+    }
 
-        try {
-            // 지점별 그룹화하여 URL당 한 번만 요청
-            Map<String, List<ThemeMapping>> locationMap = new HashMap<>();
-            for (ThemeMapping mapping : THEME_MAPPINGS) {
-                locationMap.computeIfAbsent(mapping.url, k -> new ArrayList<>()).add(mapping);
+    /**
+     * 날짜 순 → 지점 순 (saveResults 가 같은 순서로 읽는다)
+     */
+    private static List<FetchUnit> buildUnits(List<String> dates, Map<String, List<ThemeMapping>> locationMap) {
+        List<FetchUnit> units = new ArrayList<>();
+        for (String date : dates) {
+            for (String url : locationMap.keySet()) {
+                units.add(new FetchUnit(url, date));
             }
+        }
+        return units;
+    }
 
-            for (int i = 0; i < days; i++) {
-                Calendar calendar = Calendar.getInstance();
-                calendar.add(Calendar.DATE, i);
-                SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-                String targetDate = dateFormat.format(calendar.getTime());
-
-                // 날짜별로 크롤링 결과를 임시 저장해서, 나중에 한 번에 출력할 수 있도록 준비
-                // branch(지점)마다 테마별로 시간을 모아두는 구조
-                // key: branch, value: ( key: themeTitle, value: List<String> times )
-                Map<String, Map<String, List<String>>> branchThemeMap = new LinkedHashMap<>();
-
-                for (Map.Entry<String, List<ThemeMapping>> entry : locationMap.entrySet()) {
-                    String url = entry.getKey();
-                    List<ThemeMapping> mappings = entry.getValue();
-                    // 어떤 branch 인지(홍대던전, 강남던전, ...)를 꺼낸다.
-                    String branchName = mappings.get(0).branch;
-
-                    // branch에 해당하는 테마-시간 저장용
-                    branchThemeMap.putIfAbsent(branchName, new LinkedHashMap<>());
-
-                    driver.get(url);
-                    try {
-                        WebElement dateInput = driver.findElement(By.name("rev_days"));
-                        ((JavascriptExecutor) driver).executeScript("arguments[0].value = arguments[1];", dateInput, targetDate);
-                        ((JavascriptExecutor) driver).executeScript("fun_search();");
-                        wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(".thm_box")));
-
-                        List<WebElement> themeBoxes = driver.findElements(By.cssSelector(".thm_box .box"));
-
-                        // (테마제목 -> ThemeMapping) 매핑
-                        Map<String, ThemeMapping> themeMap = new HashMap<>();
-                        for (ThemeMapping mapping : mappings) {
-                            themeMap.put(mapping.title, mapping);
-                        }
-
-                        // HTML에서 테마박스를 돌며, 실제 시간을 추출
-                        for (WebElement themeBox : themeBoxes) {
-                            String themeName = themeBox.findElement(By.cssSelector(".img_box .tit")).getText().trim();
-
-                            List<WebElement> timeElements = themeBox.findElements(By.cssSelector(".time_box ul li.sale:not(.dead) a"));
-                            List<String> availableTimes = new ArrayList<>();
-
-                            for (WebElement timeElement : timeElements) {
-                                availableTimes.add(timeElement.getText().replace("SALE", "").trim());
-                            }
-
-                            // themeMap에 있는 테마명과 일치(혹은 포함)하면 DB 저장 및 임시 리스트에 추가
-                            for (String key : themeMap.keySet()) {
-                                // 테마명이 "강남목욕탕" 같이 완전히 일치하지 않고
-                                // "사라진 보물 : 대저택의 비밀"처럼 포함만 되어도 처리하도록 하고 싶다면
-                                // if (themeName.contains(key)) 로 사용
-                                if (themeName.equals(key) || themeName.contains(key)) {
-                                    saveToDatabase(themeMap.get(key), targetDate, availableTimes);
-                                    // branchThemeMap에 테마명으로 시간 정보 저장
-                                    branchThemeMap.get(branchName).put(key, availableTimes);
-                                }
-                            }
-                        }
-                    } catch (Exception e) {
-                        // 실패한 경우에도 branchThemeMap에 넣어주어야, 출력 시 빠지지 않는다 (없음으로 처리)
-                        for (ThemeMapping mapping : mappings) {
-                            branchThemeMap.get(branchName)
-                                    .putIfAbsent(mapping.title, new ArrayList<>()); // 빈 리스트로 세팅
-                        }
+    /**
+     * 날짜별로 지점 문서를 파싱해 저장하고 출력한다. (null 이면 해당 지점 테마는 없음으로 처리)
+     */
+    private void saveResults(List<String> dates, Map<String, List<ThemeMapping>> locationMap, List<org.jsoup.nodes.Document> docs) {
+        int index = 0;
+        for (String targetDate : dates) {
+            // key: branch, value: ( key: themeTitle, value: List<String> times )
+            Map<String, Map<String, List<String>>> branchThemeMap = new LinkedHashMap<>();
+
+            for (List<ThemeMapping> mappings : locationMap.values()) {
+                org.jsoup.nodes.Document doc = docs.get(index++);
+                String branchName = mappings.get(0).branch;
+                branchThemeMap.putIfAbsent(branchName, new LinkedHashMap<>());
+
+                if (doc == null) {
+                    // 실패한 경우에도 출력 시 빠지지 않도록 없음으로 처리
+                    for (ThemeMapping mapping : mappings) {
+                        branchThemeMap.get(branchName).putIfAbsent(mapping.title, new ArrayList<>());
                     }
+                    continue;
                 }
 
-                // 이제 branchThemeMap 에 날짜(targetDate)에 대한 모든 branch별 정보가 모였으니 출력
-                for (String branch : branchThemeMap.keySet()) {
-                    System.out.println("\n📍 " + branch + " (" + targetDate + ")");
-                    // branch에 해당하는 (테마 -> times)
-                    Map<String, List<String>> themeInfo = branchThemeMap.get(branch);
-
-                    // 테마별로 출력 (입력 순서 유지 위해 LinkedHashMap 사용)
-                    for (Map.Entry<String, List<String>> entry : themeInfo.entrySet()) {
-                        String themeTitle = entry.getKey();
-                        List<String> times = entry.getValue();
-                        if (times == null || times.isEmpty()) {
-                            System.out.println(themeTitle + " : 없음");
-                        } else {
-                            System.out.println(themeTitle + " : " + times);
-                        }
+                saveThemeBoxes(doc, mappings, targetDate, branchThemeMap.get(branchName));
+            }
+
+            printBranchThemes(targetDate, branchThemeMap);
+        }
+    }
+
+    /**
+     * 테마 박스(.thm_box .box)마다 제목과 예약 가능 시간을 읽어 매핑된 테마를 저장한다.
+     * - HTTP 응답 문서와 크롬 화면 스냅샷 모두 이 메서드로 파싱
+     * @param branchThemes 출력용 (테마제목 -> 시간 목록)
+     */
+    private void saveThemeBoxes(Element root, List<ThemeMapping> mappings, String targetDate, Map<String, List<String>> branchThemes) {
+        for (Element themeBox : root.select(".thm_box .box")) {
+            Element titleEl = themeBox.selectFirst(".img_box .tit");
+            if (titleEl == null) continue;
+            String themeName = titleEl.text().trim();
+
+            List<String> availableTimes = new ArrayList<>();
+            for (Element timeElement : themeBox.select(".time_box ul li.sale:not(.dead) a")) {
+                availableTimes.add(timeElement.text().replace("SALE", "").trim());
+            }
+
+            // 테마명이 완전히 일치하지 않고 포함만 되어도 처리 (예: "사라진 보물 : 대저택의 비밀")
+            for (ThemeMapping mapping : mappings) {
+                if (themeName.equals(mapping.title) || themeName.contains(mapping.title)) {
+                    saveToDatabase(mapping, targetDate, availableTimes);
+                    branchThemes.put(mapping.title, availableTimes);
+                }
+            }
+        }
+    }
+
+    /**
+     * 크롬으로 지점 페이지를 열고 rev_days 입력 후 fun_search() 를 호출하는 기존 방식 (모든 지점 × 날짜)
+     */
+    public void crawlReservationsWithBrowser(int days) {
+        Map<String, List<ThemeMapping>> locationMap = groupByUrl();
+        List<String> dates = datesFrom(days);
+        List<FetchUnit> units = buildUnits(dates, locationMap);
+
+        List<org.jsoup.nodes.Document> docs = new ArrayList<>(Collections.nCopies(units.size(), null));
+        List<Integer> all = new ArrayList<>();
+        for (int i = 0; i < units.size(); i++) all.add(i);
+        fetchWithBrowser(units, docs, all);
+
+        saveResults(dates, locationMap, docs);
+    }
+
+    /**
+     * indices 에 해당하는 (지점, 날짜)를 브라우저 세션 하나로 차례로 열어 화면 스냅샷으로 docs 를 채운다.
+     * - 브라우저 백엔드는 BROWSER_BACKEND_BEATPHOBIA 로 선택 (htmlunit 이면 크롬 없이 처리하고, 렌더링 실패 시 크롬으로 전환)
+     */
+    private void fetchWithBrowser(List<FetchUnit> units, List<org.jsoup.nodes.Document> docs, List<Integer> indices) {
+        try (BrowserBackend browser = BrowserBackends.open("beatphobia")) {
+            for (int index : indices) {
+                FetchUnit unit = units.get(index);
+                try {
+                    browser.navigate(unit.url);
+                    browser.evaluate("document.getElementsByName('rev_days')[0].value = " + JSONObject.quote(unit.date) + ";"
+                            + " fun_search();");
+                    if (!browser.waitFor(".thm_box", Duration.ofSeconds(10))) {
+                        throw new IllegalStateException("테마 목록이 표시되지 않음");
                     }
+
+                    // 테마 목록을 한 번에 받아서 HTTP 방식과 같은 파서로 처리 (요소별 chromedriver 왕복 없음)
+                    docs.set(index, browser.snapshot());
+                } catch (Exception e) {
+                    // 실패한 단위는 null 로 남겨 없음으로 처리
+                    System.err.println("❌ [비트포비아] " + unit.url + " (" + unit.date + ") 브라우저 요청 실패: " + e.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("❌ [비트포비아] 브라우저 세션 오류: " + e.getMessage());
+        }
+    }
+
+    private void printBranchThemes(String targetDate, Map<String, Map<String, List<String>>> branchThemeMap) {
+        for (String branch : branchThemeMap.keySet()) {
+            System.out.println("\n📍 " + branch + " (" + targetDate + ")");
+            // branch에 해당하는 (테마 -> times)
+            Map<String, List<String>> themeInfo = branchThemeMap.get(branch);
+
+            // 테마별로 출력 (입력 순서 유지 위해 LinkedHashMap 사용)
+            for (Map.Entry<String, List<String>> entry : themeInfo.entrySet()) {
+                String themeTitle = entry.getKey();
+                List<String> times = entry.getValue();
+                if (times == null || times.isEmpty()) {
+                    System.out.println(themeTitle + " : 없음");
+                } else {
+                    System.out.println(themeTitle + " : " + times);
                 }
             }
-        } finally {
-            driver.quit();
         }
     }
 
@@ -0,0 +1,83 @@
+package org.example.browser;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 브라우저 백엔드별 페이지당 지연 시간 비교
+ * - 백엔드마다 세션을 열어(webdriver/cdp 는 크롬 세션 풀, htmlunit 은 JVM 안) URL 목록을 rounds 번 돌며 측정
+ * - 한 페이지 = 이동(DOMContentLoaded) + body 대기 + DOM 스냅샷 + 요소 개수 조회 10회
+ *   (요소 개수 조회는 크롤러가 준비 여부를 확인하는 폴링 1회에 해당)
+ *
+ * 실행: java -cp crawler-runtime-1.0-SNAPSHOT.jar org.example.browser.BackendBenchmark [rounds] [url...]
+ */
+public class BackendBenchmark {
+
+    private static final List<String> DEFAULT_URLS = Arrays.asList(
+            "https://www.keyescape.com/reservation1.php?zizum_num=22&theme_num=67&theme_info_num=45",
+            "https://zerogangnam.com/reservation",
+            "https://www.dpsnnn.com/reserve_g",
+            "https://www.master-key.co.kr/booking/bk_detail?bid=1"
+    );
+    private static final int PROBES_PER_PAGE = 10;
+
+    public static void main(String[] args) {
+        int rounds = (args.length > 0) ? Integer.parseInt(args[0]) : 3;
+        List<String> urls = (args.length > 1) ? Arrays.asList(args).subList(1, args.length) : DEFAULT_URLS;
+
+        for (String kind : Arrays.asList("webdriver", "cdp", "htmlunit")) {
+            List<Long> pageMillis = new ArrayList<>();
+            List<Long> probeMicros = new ArrayList<>();
+
+            try (BrowserBackend backend = BrowserBackends.open("benchmark", kind)) {
+                // 첫 이동은 크롬/커넥션 준비 비용이 섞이므로 제외
+                backend.navigate("about:blank");
+
+                for (int round = 0; round < rounds; round++) {
+                    for (String url : urls) {
+                        long start = System.nanoTime();
+                        try {
+                            backend.navigate(url);
+                            backend.waitFor("body", Duration.ofSeconds(10));
+                            backend.snapshot();
+                            for (int i = 0; i < PROBES_PER_PAGE; i++) {
+                                long probeStart = System.nanoTime();
+                                backend.evaluate("return document.querySelectorAll('*').length;");
+                                probeMicros.add((System.nanoTime() - probeStart) / 1_000);
+                            }
+                            pageMillis.add((System.nanoTime() - start) / 1_000_000);
+                        } catch (Exception e) {
+                            System.err.println("❌ [" + kind + "] " + url + " 실패: " + e.getMessage());
+                        }
+                    }
+                }
+                backend.drainResponses();
+                System.out.println("\n📊 " + backend.name() + " (요청한 백엔드: " + kind + ")");
+            }
+            System.out.println(" - 페이지당: " + describe(pageMillis, "ms"));
+            System.out.println(" - 스크립트 1회: " + describe(probeMicros, "µs"));
+        }
+
+        WebDriverPool.shared().close();
+    }
+
+    private static String describe(List<Long> samples, String unit) {
+        if (samples.isEmpty()) return "측정값 없음";
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        long sum = 0;
+        for (long sample : sorted) sum += sample;
+        return "n=" + sorted.size()
+                + ", 평균 " + (sum / sorted.size()) + unit
+                + ", p50 " + percentile(sorted, 50) + unit
+                + ", p95 " + percentile(sorted, 95) + unit;
+    }
+
+    private static long percentile(List<Long> sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.browser;
+
+import org.jsoup.nodes.Document;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 크롤러가 쓰는 브라우저 조작 (이동 / 준비 대기 / 스크립트 실행 / DOM 스냅샷 / 응답 기록)
+ * - 구현마다 페이지를 다루는 방식이 다르다. (BrowserBackends 로 사이트별 선택)
+ *   webdriver: chromedriver HTTP 프로토콜 (기존 방식)
+ *   cdp: 크롬 DevTools 웹소켓으로 직접 통신 (명령마다 chromedriver 를 거치지 않음)
+ *   htmlunit: 크롬 없이 JVM 안의 HtmlUnit 으로 처리 (실패 시 크롬으로 전환)
+ * - 여기 없는 조작(요소 클릭 등)은 driver() 로 WebDriver 를 그대로 사용
+ */
+public interface BrowserBackend extends AutoCloseable {
+
+    /**
+     * 페이지가 받은 응답 하나
+     */
+    class Response {
+        public final String url;
+        public final int status;
+        public final String mimeType;
+
+        public Response(String url, int status, String mimeType) {
+            this.url = url;
+            this.status = status;
+            this.mimeType = mimeType;
+        }
+    }
+
+    String name();
+
+    /**
+     * 페이지를 열고 DOMContentLoaded 까지 기다린다.
+     */
+    void navigate(String url);
+
+    /**
+     * 함수 본문 형태의 스크립트를 실행하고 return 값을 반환한다. (예: "return document.title;")
+     */
+    Object evaluate(String script);
+
+    /**
+     * 셀렉터에 맞는 요소가 생길 때까지 대기한다. 시간 안에 생기지 않으면 false.
+     */
+    boolean waitFor(String cssSelector, Duration timeout);
+
+    /**
+     * 현재 DOM 전체를 Jsoup 문서로
+     */
+    Document snapshot();
+
+    /**
+     * 마지막 호출 이후 받은 응답 목록을 꺼낸다.
+     */
+    List<Response> drainResponses();
+
+    /**
+     * 같은 세션의 WebDriver (백엔드가 지원하지 않는 조작용)
+     */
+    WebDriver driver();
+
+    /**
+     * 빌린 세션을 반납한다.
+     */
+    @Override
+    void close();
+}
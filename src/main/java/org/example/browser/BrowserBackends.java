@@ -0,0 +1,52 @@
+package org.example.browser;
+
+import org.example.config.Env;
+
+/**
+ * 사이트별 브라우저 백엔드 선택
+ * - BROWSER_BACKEND_<사이트>(예: BROWSER_BACKEND_BEATPHOBIA) → 없으면 BROWSER_BACKEND → 없으면 webdriver
+ * - 값: webdriver | cdp | htmlunit
+ *   htmlunit 은 크롬 세션을 빌리지 않고 JVM 안에서 열며, 렌더링에 실패하면 크롬(webdriver)으로 자동 전환
+ */
+public class BrowserBackends {
+
+    public static String kindFor(String site) {
+        String global = Env.getString("BROWSER_BACKEND", "webdriver");
+        return Env.getString("BROWSER_BACKEND_" + site.toUpperCase(), global).toLowerCase();
+    }
+
+    /**
+     * 사이트에 설정된 백엔드로 세션을 연다. 사용 후 close() 로 반납할 것
+     */
+    public static BrowserBackend open(String site) {
+        return open(site, kindFor(site));
+    }
+
+    public static BrowserBackend open(String site, String kind) {
+        if ("htmlunit".equals(kind)) {
+            try {
+                return new HtmlUnitBackend(site);
+            } catch (RuntimeException | LinkageError e) {
+                System.err.println("⚠ [" + site + "] htmlunit 백엔드 초기화 실패, webdriver 사용: " + e.getMessage());
+                return open(site, "webdriver");
+            }
+        }
+
+        WebDriverPool.Lease lease = WebDriverPool.shared().lease();
+        try {
+            switch (kind) {
+                case "cdp":
+                    return new CdpBackend(lease);
+                case "webdriver":
+                    return new WebDriverBackend(lease);
+                default:
+                    System.err.println("⚠ [" + site + "] 알 수 없는 브라우저 백엔드: " + kind + " → webdriver 사용");
+                    return new WebDriverBackend(lease);
+            }
+        } catch (RuntimeException e) {
+            // CDP 연결 실패 등 → 같은 세션으로 기존 방식 사용
+            System.err.println("⚠ [" + site + "] " + kind + " 백엔드 초기화 실패, webdriver 사용: " + e.getMessage());
+            return new WebDriverBackend(lease);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package org.example.browser;
+
+import org.example.config.ChromeConfig;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * 크롬 세션 하나 (WebDriverPool 이 관리)
+ * - 세션마다 tmpfs 아래 별도 프로필(--user-data-dir)을 만들고 종료 시 지운다.
+ *   (여러 크롬이 한 프로필을 공유하면 잠금 충돌이 나고, 디스크에 캐시가 쌓임)
+ * - 페이지 이동 횟수와 크롬 프로세스 RSS 를 추적해서 풀이 재시작 여부를 판단한다.
+ *   RSS 는 /proc 에서 이 세션의 프로필 경로를 인자로 가진 프로세스(브라우저 + 렌더러)를 합산
+ * - 시작 시 ResourceBlocker 로 이미지/폰트/광고 등 불필요한 요청 차단을 건다.
+ */
+public class BrowserSession {
+    private static final Path PROC = Paths.get("/proc");
+
+    private final Path profileDir;
+    private final WebDriver rawDriver;
+    // 페이지 이동을 세기 위해 리스너를 붙인 드라이버 (크롤러에는 이쪽을 넘김)
+    private final WebDriver driver;
+    private final AtomicInteger pageCount = new AtomicInteger();
+    private final long createdAt = System.currentTimeMillis();
+    // 리소스 차단을 쓰지 않거나 설정에 실패하면 null
+    private final ResourceBlocker.Stats blockStats;
+    // CdpBackend 가 처음 쓸 때 만든다
+    private CdpBackend.Channel cdpChannel;
+
+    private BrowserSession(Path profileDir, WebDriver rawDriver) {
+        this.profileDir = profileDir;
+        this.rawDriver = rawDriver;
+        this.blockStats = ResourceBlocker.enabled() ? ResourceBlocker.install(rawDriver) : null;
+        this.driver = new EventFiringDecorator<>(new WebDriverListener() {
+            @Override
+            public void afterGet(WebDriver d, String url) {
+                pageCount.incrementAndGet();
+            }
+
+            @Override
+            public void afterTo(WebDriver.Navigation navigation, String url) {
+                pageCount.incrementAndGet();
+            }
+
+            @Override
+            public void afterRefresh(WebDriver.Navigation navigation) {
+                pageCount.incrementAndGet();
+            }
+        }).decorate(rawDriver);
+    }
+
+    /**
+     * 새 프로필 디렉터리로 크롬을 띄운다.
+     */
+    static BrowserSession start(Path profileRoot) {
+        Path profileDir = profileRoot.resolve("session-" + UUID.randomUUID());
+        try {
+            Files.createDirectories(profileDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("크롬 프로필 디렉터리 생성 실패: " + profileDir, e);
+        }
+        try {
+            WebDriver rawDriver = ChromeConfig.createDriver(profileDir);
+            try {
+                return new BrowserSession(profileDir, rawDriver);
+            } catch (RuntimeException e) {
+                rawDriver.quit();
+                throw e;
+            }
+        } catch (RuntimeException e) {
+            deleteRecursively(profileDir);
+            throw e;
+        }
+    }
+
+    public WebDriver driver() {
+        return driver;
+    }
+
+    /**
+     * 리스너를 거치지 않은 원래 ChromeDriver (DevTools 등 구현 클래스 기능이 필요할 때)
+     */
+    public WebDriver rawDriver() {
+        return rawDriver;
+    }
+
+    public ResourceBlocker.Stats blockStats() {
+        return blockStats;
+    }
+
+    public int pageCount() {
+        return pageCount.get();
+    }
+
+    /**
+     * WebDriver 를 거치지 않은 이동 (CdpBackend) 도 재시작 기준에 포함
+     */
+    void countPage() {
+        pageCount.incrementAndGet();
+    }
+
+    synchronized CdpBackend.Channel cdpChannel() {
+        if (cdpChannel == null) {
+            cdpChannel = new CdpBackend.Channel(rawDriver);
+        }
+        return cdpChannel;
+    }
+
+    public long ageMillis() {
+        return System.currentTimeMillis() - createdAt;
+    }
+
+    /**
+     * 세션이 명령에 응답하는지 확인 (크롬/크롬드라이버가 죽었으면 false)
+     */
+    public boolean isAlive() {
+        try {
+            rawDriver.getWindowHandles();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * 이 세션의 크롬 프로세스들의 RSS 합 (바이트). /proc 이 없으면 -1.
+     */
+    public long rssBytes() {
+        if (!Files.isDirectory(PROC)) return -1;
+
+        String marker = "--user-data-dir=" + profileDir;
+        long total = 0;
+        try (DirectoryStream<Path> pids = Files.newDirectoryStream(PROC, p -> p.getFileName().toString().matches("\\d+"))) {
+            for (Path pid : pids) {
+                try {
+                    String cmdline = new String(Files.readAllBytes(pid.resolve("cmdline")), StandardCharsets.UTF_8);
+                    if (!cmdline.contains(marker)) continue;
+                    total += readVmRss(pid.resolve("status"));
+                } catch (IOException ignored) {
+                    // 조회 중에 종료된 프로세스
+                }
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+        return total;
+    }
+
+    private static long readVmRss(Path status) throws IOException {
+        for (String line : Files.readAllLines(status)) {
+            // 예: "VmRSS:	  123456 kB"
+            if (line.startsWith("VmRSS:")) {
+                String[] parts = line.substring(6).trim().split("\\s+");
+                return Long.parseLong(parts[0]) * 1024;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 크롬을 종료하고 프로필 디렉터리를 지운다.
+     */
+    public void close() {
+        if (blockStats != null) {
+            System.out.println("🚫 크롬 세션 종료 (페이지 " + pageCount() + "회, " + blockStats
+                    + " / 전체 누적: " + ResourceBlocker.totals() + ")");
+        }
+        try {
+            rawDriver.quit();
+        } catch (Exception ignored) {
+        }
+        deleteRecursively(profileDir);
+    }
+
+    static void deleteRecursively(Path dir) {
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.deleteIfExists(p);
+                } catch (IOException ignored) {
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("⚠ 크롬 프로필 삭제 실패: " + dir + " (" + e.getMessage() + ")");
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package org.example.browser;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.json.JSONObject;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.JsonInput;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 크롬 DevTools 프로토콜(CDP)로 직접 조작하는 백엔드
+ * - 이동: Page.navigate 후 Page.domContentEventFired 이벤트를 기다림 (폴링 없음)
+ * - 스크립트/DOM 조회: Runtime.evaluate (chromedriver HTTP 왕복 없이 웹소켓으로 바로 전달)
+ * - 응답 기록: Network.responseReceived 이벤트
+ * - 버전별 devtools 클래스를 쓰지 않고 메서드 이름으로 호출하므로 크롬 버전이 바뀌어도 동작
+ *
+ * 리스너는 세션마다 한 번만 붙인다. (DevTools 리스너는 개별 제거가 안 되므로 세션을 재사용할 때 쌓이지 않도록
+ * BrowserSession 에 Channel 을 보관)
+ */
+public class CdpBackend implements BrowserBackend {
+    private static final long NAVIGATE_TIMEOUT_SECONDS = 30;
+    private static final long POLL_MILLIS = 50;
+    // 아무도 꺼내 가지 않을 때 응답 기록이 계속 쌓이지 않도록 제한
+    private static final int MAX_RESPONSES = 500;
+
+    private final WebDriverPool.Lease lease;
+
+    /**
+     * 세션 하나에 붙은 DevTools 연결과 이벤트 상태
+     */
+    static class Channel {
+        final DevTools devTools;
+        volatile CountDownLatch domReady = new CountDownLatch(0);
+        final Queue<Response> responses = new ConcurrentLinkedQueue<>();
+
+        Channel(WebDriver rawDriver) {
+            if (!(rawDriver instanceof HasDevTools)) {
+                throw new WebDriverException("DevTools 를 지원하지 않는 드라이버입니다: " + rawDriver.getClass().getSimpleName());
+            }
+            devTools = ((HasDevTools) rawDriver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            devTools.send(new Command<Void>("Page.enable", Map.of()));
+            devTools.send(new Command<Void>("Network.enable", Map.of()));
+
+            devTools.addListener(new Event<Map<String, Object>>("Page.domContentEventFired", CdpBackend::readMap),
+                    params -> domReady.countDown());
+            devTools.addListener(new Event<Map<String, Object>>("Network.responseReceived", CdpBackend::readMap), params -> {
+                Object response = params.get("response");
+                if (!(response instanceof Map)) return;
+                Map<?, ?> map = (Map<?, ?>) response;
+                Object status = map.get("status");
+                responses.add(new Response(String.valueOf(map.get("url")),
+                        (status instanceof Number) ? ((Number) status).intValue() : 0,
+                        String.valueOf(map.get("mimeType"))));
+                while (responses.size() > MAX_RESPONSES) {
+                    responses.poll();
+                }
+            });
+        }
+    }
+
+    public CdpBackend(WebDriverPool.Lease lease) {
+        this.lease = lease;
+        // 세션 생성 직후 연결을 열어 둔다 (DevTools 를 쓸 수 없으면 여기서 실패)
+        channel();
+    }
+
+    private Channel channel() {
+        return lease.session().cdpChannel();
+    }
+
+    @Override
+    public String name() {
+        return "cdp";
+    }
+
+    @Override
+    public WebDriver driver() {
+        return lease.driver();
+    }
+
+    @Override
+    public void navigate(String url) {
+        Channel channel = channel();
+        lease.session().countPage();
+        CountDownLatch ready = new CountDownLatch(1);
+        channel.domReady = ready;
+
+        Map<String, Object> result = channel.devTools.send(
+                new Command<>("Page.navigate", Map.of("url", url), CdpBackend::readMap));
+        Object errorText = result.get("errorText");
+        if (errorText != null && !String.valueOf(errorText).isEmpty()) {
+            throw new WebDriverException("페이지 이동 실패 (" + url + "): " + errorText);
+        }
+        // 같은 문서 안의 이동(#hash)은 loaderId 가 없고 DOMContentLoaded 도 오지 않는다
+        if (result.get("loaderId") == null) return;
+
+        try {
+            if (!ready.await(NAVIGATE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new TimeoutException("DOMContentLoaded 대기 시간 초과: " + url);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("페이지 이동 대기 중 인터럽트", e);
+        }
+    }
+
+    @Override
+    public Object evaluate(String script) {
+        Map<String, Object> result = channel().devTools.send(new Command<>("Runtime.evaluate", Map.of(
+                "expression", "(function () {" + script + "\n})()",
+                "returnByValue", true,
+                "awaitPromise", true
+        ), CdpBackend::readMap));
+
+        Object exception = result.get("exceptionDetails");
+        if (exception instanceof Map) {
+            Object text = ((Map<?, ?>) exception).get("text");
+            Object detail = ((Map<?, ?>) exception).get("exception");
+            if (detail instanceof Map && ((Map<?, ?>) detail).get("description") != null) {
+                text = ((Map<?, ?>) detail).get("description");
+            }
+            throw new WebDriverException("스크립트 오류: " + text);
+        }
+        Object remote = result.get("result");
+        return (remote instanceof Map) ? ((Map<?, ?>) remote).get("value") : null;
+    }
+
+    @Override
+    public boolean waitFor(String cssSelector, Duration timeout) {
+        String script = "return document.querySelector(" + JSONObject.quote(cssSelector) + ") !== null;";
+        long start = System.currentTimeMillis();
+        long deadline = start + timeout.toMillis();
+        boolean found = false;
+        try {
+            while (true) {
+                try {
+                    if (Boolean.TRUE.equals(evaluate(script))) {
+                        found = true;
+                        return true;
+                    }
+                } catch (WebDriverException e) {
+                    // 폼 제출 등으로 페이지가 바뀌는 중이면 실행 컨텍스트가 없어 실패 → 계속 확인
+                }
+                if (System.currentTimeMillis() >= deadline) return false;
+                Thread.sleep(POLL_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            Waits.record("cdp 요소 대기", System.currentTimeMillis() - start, !found);
+        }
+    }
+
+    @Override
+    public Document snapshot() {
+        Object result = evaluate("return [document.documentElement.outerHTML, location.href];");
+        List<?> parts = (List<?>) result;
+        return Jsoup.parse(String.valueOf(parts.get(0)), String.valueOf(parts.get(1)));
+    }
+
+    @Override
+    public List<Response> drainResponses() {
+        List<Response> drained = new ArrayList<>();
+        Response response;
+        while ((response = channel().responses.poll()) != null) {
+            drained.add(response);
+        }
+        return drained;
+    }
+
+    @Override
+    public void close() {
+        lease.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> readMap(JsonInput input) {
+        return (Map<String, Object>) input.read(Map.class);
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.browser;
+
+import org.htmlunit.WebClient;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 크롬 없이 JVM 안에서 페이지를 여는 HtmlUnit 백엔드
+ * - 폼 값 하나 넣고 fun_search() 를 부르는 정도의 가벼운 스크립트만 필요한 사이트용
+ *   (크롬 프로세스 수백 MB 대신 수십 MB, 세션 풀/공유 메모리를 쓰지 않음)
+ * - CSS/이미지는 받지 않고, 페이지 스크립트 오류는 무시한다. (결과는 waitFor 로 판단)
+ * - 이동/스크립트가 실패하거나 waitFor 시간이 초과되면 크롬(webdriver 백엔드)으로 바꿔서
+ *   마지막 이동과 그 뒤의 스크립트를 다시 실행한 뒤 같은 작업을 재시도한다.
+ *   한 번 바꾸면 close() 까지 크롬을 계속 쓴다.
+ * - 응답 기록은 지원하지 않는다. (크롬으로 바뀐 뒤에는 크롬 백엔드의 기록)
+ */
+public class HtmlUnitBackend implements BrowserBackend {
+
+    private final String site;
+    private final HtmlUnitDriver driver;
+
+    // 크롬으로 바꿀 때 다시 실행할 마지막 이동 URL 과 그 뒤에 실행한 스크립트
+    private String lastUrl;
+    private final List<String> scriptsSinceNavigate = new ArrayList<>();
+
+    private BrowserBackend chrome;
+
+    public HtmlUnitBackend(String site) {
+        this.site = site;
+        this.driver = new HtmlUnitDriver(true) {
+            @Override
+            protected WebClient modifyWebClient(WebClient client) {
+                client.getOptions().setCssEnabled(false);
+                client.getOptions().setDownloadImages(false);
+                client.getOptions().setThrowExceptionOnScriptError(false);
+                client.getOptions().setPrintContentOnFailingStatusCode(false);
+                return client;
+            }
+        };
+    }
+
+    @Override
+    public String name() {
+        return (chrome != null) ? "htmlunit→" + chrome.name() : "htmlunit";
+    }
+
+    @Override
+    public WebDriver driver() {
+        return (chrome != null) ? chrome.driver() : driver;
+    }
+
+    @Override
+    public void navigate(String url) {
+        if (chrome != null) {
+            chrome.navigate(url);
+            return;
+        }
+        lastUrl = url;
+        scriptsSinceNavigate.clear();
+        try {
+            driver.get(url);
+        } catch (RuntimeException e) {
+            switchToChrome("페이지 이동 실패: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object evaluate(String script) {
+        if (chrome != null) return chrome.evaluate(script);
+        try {
+            Object result = driver.executeScript(script);
+            scriptsSinceNavigate.add(script);
+            return result;
+        } catch (RuntimeException e) {
+            switchToChrome("스크립트 실패: " + e.getMessage(), e);
+            return chrome.evaluate(script);
+        }
+    }
+
+    @Override
+    public boolean waitFor(String cssSelector, Duration timeout) {
+        if (chrome != null) return chrome.waitFor(cssSelector, timeout);
+        try {
+            Waits.until(driver, "htmlunit 요소 대기", timeout,
+                    d -> d.findElements(By.cssSelector(cssSelector)).isEmpty() ? null : Boolean.TRUE);
+            return true;
+        } catch (TimeoutException e) {
+            // HtmlUnit 에서 그려지지 않은 경우 → 크롬에서 다시 확인
+            switchToChrome(cssSelector + " 요소가 표시되지 않음", e);
+            return chrome.waitFor(cssSelector, timeout);
+        }
+    }
+
+    @Override
+    public Document snapshot() {
+        if (chrome != null) return chrome.snapshot();
+        // getPageSource() 는 스크립트로 바뀐 현재 DOM 을 직렬화한다
+        return Jsoup.parse(driver.getPageSource(), driver.getCurrentUrl());
+    }
+
+    @Override
+    public List<Response> drainResponses() {
+        return (chrome != null) ? chrome.drainResponses() : Collections.emptyList();
+    }
+
+    @Override
+    public void close() {
+        try {
+            driver.quit();
+        } catch (Exception ignored) {
+        }
+        if (chrome != null) {
+            chrome.close();
+        }
+    }
+
+    /**
+     * 크롬 세션을 빌려 마지막 이동과 스크립트를 다시 실행한다.
+     * - 크롬을 열지 못하면 원래의 렌더링 실패를 던진다. (HtmlUnit 은 어느 경우든 종료)
+     */
+    private void switchToChrome(String reason, RuntimeException failure) {
+        System.err.println("⚠ [" + site + "] htmlunit 렌더링 실패, 크롬으로 전환: " + reason);
+        try {
+            chrome = BrowserBackends.open(site, "webdriver");
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+            throw failure;
+        } finally {
+            try {
+                driver.quit();
+            } catch (Exception ignored) {
+            }
+        }
+        if (lastUrl != null) {
+            chrome.navigate(lastUrl);
+            for (String script : scriptsSinceNavigate) {
+                chrome.evaluate(script);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.browser;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.List;
+
+/**
+ * 크롬 화면의 현재 DOM 을 한 번에 가져와 Jsoup 으로 파싱한다.
+ * - findElement()/getText()/getAttribute() 는 호출마다 chromedriver 왕복이 생기므로
+ *   슬롯이 많은 페이지는 수백 번의 요청이 된다. 스냅샷 한 번으로 받아서 Jsoup 으로 추출하면 왕복 1회
+ * - HTTP 크롤링과 같은 셀렉터/파싱 메서드를 그대로 쓸 수 있다.
+ *
+ * 주의: Jsoup 의 text() 는 CSS 로 숨긴 요소의 글자도 포함한다. (getText() 는 보이는 글자만)
+ *       숨김 여부가 중요한 곳은 셀렉터에서 클래스(.dead, .closed 등)로 걸러야 한다.
+ */
+public class PageSnapshot {
+
+    private static final String OUTER_HTML_SCRIPT =
+            "var e = document.querySelector(arguments[0]); return e ? e.outerHTML : null;";
+
+    /**
+     * 페이지 전체 (현재 DOM 기준, 스크립트로 바뀐 내용 포함)
+     */
+    public static Document page(WebDriver driver) {
+        Object html = ((JavascriptExecutor) driver).executeScript(
+                "return [document.documentElement.outerHTML, location.href];");
+        List<?> result = (List<?>) html;
+        return Jsoup.parse(String.valueOf(result.get(0)), String.valueOf(result.get(1)));
+    }
+
+    /**
+     * 셀렉터에 맞는 첫 요소 하나만 (없으면 null)
+     * - 페이지 전체보다 전송량이 적다. td/tr 처럼 table 밖에서 파싱할 수 없는 요소는 table 을 지정할 것
+     */
+    public static Element element(WebDriver driver, String cssSelector) {
+        Object html = ((JavascriptExecutor) driver).executeScript(OUTER_HTML_SCRIPT, cssSelector);
+        if (html == null) return null;
+        Document fragment = Jsoup.parseBodyFragment(String.valueOf(html));
+        return fragment.body().children().first();
+    }
+}
@@ -0,0 +1,272 @@
+package org.example.browser;
+
+import org.example.config.Env;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 크롬 세션에서 크롤링에 필요 없는 요청(이미지/폰트/미디어/광고·분석 스크립트)을 차단한다.
+ * - CDP Fetch 도메인으로 차단 대상 리소스 타입과 URL 패턴에 해당하는 요청만 가로채서 차단 여부를 결정
+ *   (나머지 요청은 멈추지 않고 그대로 진행, 허용 건수는 가로챈 뒤 통과시킨 요청만 센다)
+ *   (버전별 devtools 클래스를 쓰지 않고 메서드 이름으로 호출하므로 크롬 버전이 바뀌어도 동작)
+ * - 공통 규칙 + 사이트별 규칙 (요청 URL 이나 Referer 의 호스트가 사이트 도메인으로 끝나면 적용)
+ * - 세션별/전체 차단 요청 수와 실제 전송된 바이트를 센다.
+ *   (차단한 요청은 내려받지 않으므로 크기를 알 수 없음 → 차단 건수와 전송량으로 효과를 비교)
+ *
+ * 스타일시트는 isDisplayed()/getText() 결과를 바꿀 수 있어 공통 규칙에서는 차단하지 않는다.
+ *
+ * 환경 변수
+ * - BROWSER_BLOCK_RESOURCES: 차단 사용 여부 (기본 true)
+ * - BROWSER_BLOCK_TYPES: 공통으로 차단할 리소스 타입 (쉼표 구분, 기본 Image,Font,Media)
+ */
+public class ResourceBlocker {
+
+    // 광고/분석/채팅 위젯 등 크롤링 결과와 무관한 외부 스크립트
+    private static final List<String> COMMON_URL_PATTERNS = Arrays.asList(
+            "*google-analytics.com/*",
+            "*googletagmanager.com/*",
+            "*googlesyndication.com/*",
+            "*doubleclick.net/*",
+            "*connect.facebook.net/*",
+            "*wcs.naver.net/*",
+            "*analytics.naver.com/*",
+            "*t1.daumcdn.net/kas/*",
+            "*cdn.channel.io/*",
+            "*static.hotjar.com/*",
+            "*youtube.com/embed/*"
+    );
+
+    private static class SiteRule {
+        final String domain;
+        final Set<String> types;
+        final List<String> wildcards;
+        final List<Pattern> urlPatterns;
+        SiteRule(String domain, Set<String> types, List<String> urlPatterns) {
+            this.domain = domain;
+            this.types = types;
+            this.wildcards = urlPatterns;
+            this.urlPatterns = toPatterns(urlPatterns);
+        }
+    }
+
+    // 사이트별 추가 규칙 (해당 사이트 크롤러가 읽지 않는 것만)
+    private static final List<SiteRule> SITE_RULES = Arrays.asList(
+            // 테마 소개 영상 플레이어
+            new SiteRule("keyescape.com", Set.of(), Arrays.asList("*player.vimeo.com/*", "*youtube.com/*")),
+            // 카카오 채널/공유 SDK
+            new SiteRule("zerogangnam.com", Set.of(), Arrays.asList("*developers.kakao.com/*", "*t1.kakaocdn.net/kakao_js_sdk/*")),
+            // imweb 위젯 중 SNS 공유/카카오 SDK (예약 달력과 무관)
+            new SiteRule("imweb.me", Set.of(), Arrays.asList("*t1.kakaocdn.net/kakao_js_sdk/*", "*sns_share*")),
+            new SiteRule("dpsnnn.com", Set.of(), Arrays.asList("*t1.kakaocdn.net/kakao_js_sdk/*", "*sns_share*")),
+            // 예약 페이지 상단 배너 슬라이더 스크립트
+            new SiteRule("master-key.co.kr", Set.of(), Arrays.asList("*/upload/banner/*"))
+    );
+
+    // 전체 세션 누적
+    private static final Stats TOTAL = new Stats();
+
+    private final Set<String> commonTypes;
+    private final List<Pattern> commonPatterns;
+
+    /**
+     * 차단 건수 / 전송 바이트 카운터
+     */
+    public static class Stats {
+        private final AtomicLong allowedRequests = new AtomicLong();
+        private final AtomicLong blockedRequests = new AtomicLong();
+        private final AtomicLong transferredBytes = new AtomicLong();
+        private final Map<String, AtomicLong> blockedByType = new ConcurrentHashMap<>();
+
+        void allowed() {
+            allowedRequests.incrementAndGet();
+        }
+
+        void blocked(String type) {
+            blockedRequests.incrementAndGet();
+            blockedByType.computeIfAbsent(type, k -> new AtomicLong()).incrementAndGet();
+        }
+
+        void transferred(long bytes) {
+            transferredBytes.addAndGet(bytes);
+        }
+
+        public long blockedRequests() {
+            return blockedRequests.get();
+        }
+
+        public long transferredBytes() {
+            return transferredBytes.get();
+        }
+
+        @Override
+        public String toString() {
+            Map<String, Long> byType = new TreeMap<>();
+            blockedByType.forEach((k, v) -> byType.put(k, v.get()));
+            return "허용 " + allowedRequests.get() + "건, 차단 " + blockedRequests.get() + "건 " + byType
+                    + ", 전송 " + (transferredBytes.get() / 1024) + "KB";
+        }
+    }
+
+    private ResourceBlocker(Set<String> commonTypes, List<Pattern> commonPatterns) {
+        this.commonTypes = commonTypes;
+        this.commonPatterns = commonPatterns;
+    }
+
+    public static boolean enabled() {
+        return Boolean.parseBoolean(Env.getString("BROWSER_BLOCK_RESOURCES", "true"));
+    }
+
+    public static Stats totals() {
+        return TOTAL;
+    }
+
+    /**
+     * 세션에 차단 규칙을 건다. DevTools 를 쓸 수 없는 드라이버면 null (차단 없이 진행)
+     */
+    public static Stats install(WebDriver driver) {
+        if (!(driver instanceof HasDevTools)) return null;
+
+        Set<String> types = new HashSet<>();
+        for (String type : Env.getString("BROWSER_BLOCK_TYPES", "Image,Font,Media").split(",")) {
+            if (!type.isBlank()) types.add(type.trim());
+        }
+        ResourceBlocker blocker = new ResourceBlocker(types, toPatterns(COMMON_URL_PATTERNS));
+
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            Stats stats = new Stats();
+
+            devTools.send(new Command<Void>("Network.enable", Map.of()));
+            devTools.addListener(new Event<Map<String, Object>>("Network.loadingFinished", ResourceBlocker::readMap), params -> {
+                Object length = params.get("encodedDataLength");
+                if (length instanceof Number) {
+                    stats.transferred(((Number) length).longValue());
+                    TOTAL.transferred(((Number) length).longValue());
+                }
+            });
+
+            // 요청 단계에서 가로챈 요청의 차단/통과를 결정 (사이트 규칙은 Referer 까지 보고 판단)
+            devTools.addListener(new Event<Map<String, Object>>("Fetch.requestPaused", ResourceBlocker::readMap), params -> {
+                String requestId = (String) params.get("requestId");
+                String type = String.valueOf(params.get("resourceType"));
+                @SuppressWarnings("unchecked")
+                Map<String, Object> request = (Map<String, Object>) params.get("request");
+                String url = (request != null) ? String.valueOf(request.get("url")) : "";
+                String referer = (request != null) ? referer(request) : null;
+
+                try {
+                    if (blocker.shouldBlock(type, url, referer)) {
+                        stats.blocked(type);
+                        TOTAL.blocked(type);
+                        devTools.send(new Command<Void>("Fetch.failRequest",
+                                Map.of("requestId", requestId, "errorReason", "BlockedByClient")));
+                    } else {
+                        stats.allowed();
+                        TOTAL.allowed();
+                        devTools.send(new Command<Void>("Fetch.continueRequest", Map.of("requestId", requestId)));
+                    }
+                } catch (Exception e) {
+                    // 페이지 이동 등으로 이미 취소된 요청
+                }
+            });
+            devTools.send(new Command<Void>("Fetch.enable", Map.of("patterns", interceptPatterns(types))));
+            return stats;
+        } catch (Exception e) {
+            System.err.println("⚠ 리소스 차단 설정 실패 (차단 없이 진행): " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Fetch.enable 에 넘길 가로채기 대상: 차단할 리소스 타입별 하나씩 + 공통/사이트별 URL 패턴
+     */
+    private static List<Map<String, Object>> interceptPatterns(Set<String> types) {
+        Set<String> resourceTypes = new TreeSet<>(types);
+        Set<String> wildcards = new LinkedHashSet<>(COMMON_URL_PATTERNS);
+        for (SiteRule rule : SITE_RULES) {
+            resourceTypes.addAll(rule.types);
+            wildcards.addAll(rule.wildcards);
+        }
+
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        for (String type : resourceTypes) {
+            patterns.add(Map.of("resourceType", type, "requestStage", "Request"));
+        }
+        for (String wildcard : wildcards) {
+            patterns.add(Map.of("urlPattern", wildcard, "requestStage", "Request"));
+        }
+        return patterns;
+    }
+
+    boolean shouldBlock(String type, String url, String referer) {
+        // 문서(페이지 자체), XHR/Fetch 는 항상 통과 (크롤링 대상 데이터)
+        if ("Document".equals(type) || "XHR".equals(type) || "Fetch".equals(type)) {
+            return false;
+        }
+        if (commonTypes.contains(type) || matchesAny(commonPatterns, url)) {
+            return true;
+        }
+        for (SiteRule rule : SITE_RULES) {
+            if (!hostEndsWith(url, rule.domain) && !hostEndsWith(referer, rule.domain)) continue;
+            if (rule.types.contains(type) || matchesAny(rule.urlPatterns, url)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String referer(Map<String, Object> request) {
+        Object headers = request.get("headers");
+        if (!(headers instanceof Map)) return null;
+        for (Map.Entry<?, ?> header : ((Map<?, ?>) headers).entrySet()) {
+            if ("referer".equalsIgnoreCase(String.valueOf(header.getKey()))) {
+                return String.valueOf(header.getValue());
+            }
+        }
+        return null;
+    }
+
+    private static boolean hostEndsWith(String url, String domain) {
+        if (url == null) return false;
+        okhttp3.HttpUrl parsed = okhttp3.HttpUrl.parse(url);
+        if (parsed == null) return false;
+        String host = parsed.host();
+        return host.equals(domain) || host.endsWith("." + domain);
+    }
+
+    private static boolean matchesAny(List<Pattern> patterns, String url) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(url).matches()) return true;
+        }
+        return false;
+    }
+
+    /**
+     * "*" 와일드카드 패턴을 정규식으로 변환
+     */
+    private static List<Pattern> toPatterns(List<String> wildcards) {
+        List<Pattern> patterns = new ArrayList<>();
+        for (String wildcard : wildcards) {
+            List<String> parts = new ArrayList<>();
+            for (String part : wildcard.split("\\*", -1)) {
+                parts.add(Pattern.quote(part));
+            }
+            patterns.add(Pattern.compile(String.join(".*", parts)));
+        }
+        return patterns;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> readMap(org.openqa.selenium.json.JsonInput input) {
+        return (Map<String, Object>) input.read(Map.class);
+    }
+}
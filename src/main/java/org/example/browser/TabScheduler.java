@@ -0,0 +1,179 @@
+package org.example.browser;
+
+import org.example.config.Env;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.UnhandledAlertException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WindowType;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 크롬 하나에서 탭 여러 개로 작업 단위를 나눠 처리한다.
+ * - 비어 있는 탭마다 다음 단위의 페이지 이동을 걸어 두고(기다리지 않음), 준비된 탭부터 결과를 수집
+ *   → 한 탭이 네트워크를 기다리는 동안 다른 탭이 로딩되므로 크롬을 여러 개 띄우지 않고도 병렬 효과
+ * - 준비 여부: 이전 문서에 남긴 표시가 사라지고(새 문서) readySelector 요소가 있으면 준비됨
+ * - 수집(harvest)은 해당 탭으로 전환된 드라이버로 실행 (날짜 클릭 등 탭 안의 조작 가능)
+ * - 끝나면 추가로 연 탭을 닫고 처음 탭으로 돌아온다.
+ *
+ * 주의: ResourceBlocker 차단은 세션의 첫 탭에만 걸려 있어 추가 탭에는 적용되지 않는다.
+ *
+ * 환경 변수
+ * - BROWSER_TABS: 세션 하나에서 동시에 쓸 탭 수 (기본 4, 1 이면 탭 병렬 없이 기존 방식)
+ */
+public class TabScheduler {
+    private static final long POLL_MILLIS = 50;
+
+    private static final String START_SCRIPT =
+            "window.__scrdTabPending = true; window.location.href = arguments[0];";
+    private static final String READY_SCRIPT =
+            "return !window.__scrdTabPending && document.readyState !== 'loading'"
+                    + " && document.querySelector(arguments[0]) !== null;";
+
+    @FunctionalInterface
+    public interface Harvest<U> {
+        void harvest(WebDriver driver, U unit) throws Exception;
+    }
+
+    private final WebDriver driver;
+    private final int tabs;
+    private final Duration unitTimeout;
+
+    private static class Slot<U> {
+        final U unit;
+        final long startedAt;
+        Slot(U unit, long startedAt) {
+            this.unit = unit;
+            this.startedAt = startedAt;
+        }
+    }
+
+    public TabScheduler(WebDriver driver, int tabs, Duration unitTimeout) {
+        this.driver = driver;
+        this.tabs = Math.max(1, tabs);
+        this.unitTimeout = unitTimeout;
+    }
+
+    public static int configuredTabs() {
+        return Env.getInt("BROWSER_TABS", 4);
+    }
+
+    /**
+     * 모든 단위를 처리하고, 시간 초과나 수집 오류로 실패한 단위를 반환한다.
+     * - 크롬 세션 자체가 죽으면 WebDriverException 을 그대로 던진다. (Lease.run 에서 재시작)
+     */
+    public <U> List<U> run(List<U> units, Function<U, String> urlFor, Function<U, String> readySelector, Harvest<U> harvest) {
+        List<U> failed = new ArrayList<>();
+        if (units.isEmpty()) return failed;
+
+        String home = driver.getWindowHandle();
+        List<String> handles = new ArrayList<>();
+        handles.add(home);
+        try {
+            for (int i = 1; i < Math.min(tabs, units.size()); i++) {
+                driver.switchTo().newWindow(WindowType.TAB);
+                handles.add(driver.getWindowHandle());
+            }
+
+            Deque<U> pending = new ArrayDeque<>(units);
+            Map<String, Slot<U>> busy = new LinkedHashMap<>();
+
+            while (!pending.isEmpty() || !busy.isEmpty()) {
+                // 빈 탭에 다음 단위 이동을 걸어 둔다
+                for (String handle : handles) {
+                    if (busy.containsKey(handle) || pending.isEmpty()) continue;
+                    U unit = pending.poll();
+                    driver.switchTo().window(handle);
+                    ((JavascriptExecutor) driver).executeScript(START_SCRIPT, urlFor.apply(unit));
+                    busy.put(handle, new Slot<>(unit, System.currentTimeMillis()));
+                }
+
+                // 준비된 탭부터 수집
+                boolean progressed = false;
+                for (String handle : new ArrayList<>(busy.keySet())) {
+                    Slot<U> slot = busy.get(handle);
+                    driver.switchTo().window(handle);
+
+                    if (isReady(readySelector.apply(slot.unit))) {
+                        try {
+                            harvest.harvest(driver, slot.unit);
+                        } catch (Exception e) {
+                            if (!isAlive()) throw asDriverException(e);
+                            System.err.println("❌ 탭 수집 실패 (" + slot.unit + "): " + e.getMessage());
+                            failed.add(slot.unit);
+                        }
+                        Waits.record("탭 준비", System.currentTimeMillis() - slot.startedAt, false);
+                        busy.remove(handle);
+                        progressed = true;
+                    } else if (System.currentTimeMillis() - slot.startedAt > unitTimeout.toMillis()) {
+                        System.err.println("⚠ 탭 로딩 시간 초과 (" + slot.unit + ")");
+                        Waits.record("탭 준비", System.currentTimeMillis() - slot.startedAt, true);
+                        failed.add(slot.unit);
+                        busy.remove(handle);
+                        progressed = true;
+                    }
+                }
+
+                if (!progressed) {
+                    try {
+                        Thread.sleep(POLL_MILLIS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        failed.addAll(pending);
+                        for (Slot<U> slot : busy.values()) failed.add(slot.unit);
+                        return failed;
+                    }
+                }
+            }
+            return failed;
+        } finally {
+            closeExtraTabs(home, handles);
+        }
+    }
+
+    private boolean isReady(String selector) {
+        try {
+            return Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript(READY_SCRIPT, selector));
+        } catch (UnhandledAlertException e) {
+            // 페이지 로딩 중 뜬 알림창은 닫고 다음 확인에서 다시 판단
+            try {
+                driver.switchTo().alert().dismiss();
+            } catch (NoAlertPresentException ignored) {
+            }
+            return false;
+        } catch (WebDriverException e) {
+            // 이동 중이라 실행 컨텍스트가 없는 경우
+            if (!isAlive()) throw e;
+            return false;
+        }
+    }
+
+    private boolean isAlive() {
+        try {
+            driver.getWindowHandles();
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private static WebDriverException asDriverException(Exception e) {
+        return (e instanceof WebDriverException) ? (WebDriverException) e : new WebDriverException(e);
+    }
+
+    private void closeExtraTabs(String home, List<String> handles) {
+        try {
+            for (String handle : handles) {
+                if (handle.equals(home)) continue;
+                driver.switchTo().window(handle).close();
+            }
+            driver.switchTo().window(home);
+        } catch (WebDriverException e) {
+            // 세션이 죽은 경우 → 풀이 세션을 버리므로 정리할 필요 없음
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.browser;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.FluentWait;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 고정 Thread.sleep 대신 쓰는 준비 완료 대기
+ * - until: 사이트별 조건(요소 등장/사라짐 등)을 짧은 간격(50ms)으로 확인
+ * - domQuiet: MutationObserver 로 DOM 변경이 quietMillis 동안 없을 때까지 대기 (달력 다시 그리기 등)
+ * - networkIdle: 진행 중인 XHR/fetch 가 없고 새 리소스 응답이 idleMillis 동안 없을 때까지 대기
+ * - 라벨별로 실제 대기 시간(횟수/합계/최대/시간 초과)을 기록해서 drainSummary() 로 출력
+ */
+public class Waits {
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(50);
+
+    // 페이지에 한 번만 설치되는 DOM 변경 / 요청 수 추적 스크립트
+    private static final String INSTALL_TRACKER_SCRIPT =
+            "if (!window.__scrdWait) {" +
+            "  var s = window.__scrdWait = { lastMutation: performance.now(), inflight: 0 };" +
+            "  new MutationObserver(function () { s.lastMutation = performance.now(); })" +
+            "    .observe(document, { childList: true, subtree: true, attributes: true, characterData: true });" +
+            "  var send = XMLHttpRequest.prototype.send;" +
+            "  XMLHttpRequest.prototype.send = function () {" +
+            "    s.inflight++;" +
+            "    this.addEventListener('loadend', function () { s.inflight--; });" +
+            "    return send.apply(this, arguments);" +
+            "  };" +
+            "  if (window.fetch) {" +
+            "    var f = window.fetch;" +
+            "    window.fetch = function () {" +
+            "      s.inflight++;" +
+            "      return f.apply(this, arguments).finally(function () { s.inflight--; });" +
+            "    };" +
+            "  }" +
+            "}";
+
+    private static final String QUIET_MILLIS_SCRIPT =
+            "return window.__scrdWait ? performance.now() - window.__scrdWait.lastMutation : 0;";
+
+    private static final String NETWORK_IDLE_MILLIS_SCRIPT =
+            "var s = window.__scrdWait;" +
+            "if (!s || s.inflight > 0 || document.readyState === 'loading') return 0;" +
+            "var last = 0;" +
+            "performance.getEntriesByType('resource').forEach(function (e) { if (e.responseEnd > last) last = e.responseEnd; });" +
+            "return performance.now() - last;";
+
+    private static final Map<String, Timing> TIMINGS = new ConcurrentHashMap<>();
+
+    private static class Timing {
+        final AtomicLong count = new AtomicLong();
+        final AtomicLong totalMillis = new AtomicLong();
+        final AtomicLong maxMillis = new AtomicLong();
+        final AtomicLong timeouts = new AtomicLong();
+
+        void record(long millis, boolean timedOut) {
+            count.incrementAndGet();
+            totalMillis.addAndGet(millis);
+            maxMillis.accumulateAndGet(millis, Math::max);
+            if (timedOut) timeouts.incrementAndGet();
+        }
+
+        @Override
+        public String toString() {
+            long n = count.get();
+            return n + "회, 평균 " + (n == 0 ? 0 : totalMillis.get() / n) + "ms, 최대 " + maxMillis.get() + "ms"
+                    + (timeouts.get() > 0 ? ", 시간 초과 " + timeouts.get() + "회" : "");
+        }
+    }
+
+    /**
+     * 조건이 null/false 가 아닌 값을 반환할 때까지 대기한다. 시간 초과 시 TimeoutException.
+     * - 요소가 아직 없거나(NoSuchElement) 다시 그려지는 중(StaleElement)인 예외는 무시하고 계속 확인
+     */
+    public static <T> T until(WebDriver driver, String label, Duration timeout, Function<WebDriver, T> condition) {
+        long start = System.currentTimeMillis();
+        boolean timedOut = false;
+        try {
+            return new FluentWait<>(driver)
+                    .withTimeout(timeout)
+                    .pollingEvery(POLL_INTERVAL)
+                    .ignoring(NoSuchElementException.class)
+                    .ignoring(StaleElementReferenceException.class)
+                    .until(condition);
+        } catch (TimeoutException e) {
+            timedOut = true;
+            throw e;
+        } finally {
+            record(label, System.currentTimeMillis() - start, timedOut);
+        }
+    }
+
+    /**
+     * DOM 변경이 quietMillis 동안 없을 때까지 대기한다. 시간 초과 시 예외 없이 false.
+     * - 호출 시점에 추적 스크립트를 설치하므로, 클릭 등 변경을 일으키기 전에 install() 을 먼저 불러 두면 정확하다.
+     */
+    public static boolean domQuiet(WebDriver driver, String label, long quietMillis, Duration timeout) {
+        install(driver);
+        return quietFor(driver, label, QUIET_MILLIS_SCRIPT, quietMillis, timeout);
+    }
+
+    /**
+     * 진행 중인 XHR/fetch 가 없고 idleMillis 동안 새 응답이 없을 때까지 대기한다. 시간 초과 시 예외 없이 false.
+     */
+    public static boolean networkIdle(WebDriver driver, String label, long idleMillis, Duration timeout) {
+        install(driver);
+        return quietFor(driver, label, NETWORK_IDLE_MILLIS_SCRIPT, idleMillis, timeout);
+    }
+
+    /**
+     * 현재 페이지에 DOM 변경 / 요청 수 추적 스크립트를 설치한다. (페이지가 바뀌면 다시 설치 필요)
+     */
+    public static void install(WebDriver driver) {
+        ((JavascriptExecutor) driver).executeScript(INSTALL_TRACKER_SCRIPT);
+    }
+
+    private static boolean quietFor(WebDriver driver, String label, String script, long quietMillis, Duration timeout) {
+        try {
+            until(driver, label, timeout, d -> {
+                Object elapsed = ((JavascriptExecutor) d).executeScript(script);
+                return (elapsed instanceof Number && ((Number) elapsed).doubleValue() >= quietMillis) ? Boolean.TRUE : null;
+            });
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    static void record(String label, long millis, boolean timedOut) {
+        TIMINGS.computeIfAbsent(label, k -> new Timing()).record(millis, timedOut);
+    }
+
+    /**
+     * 지금까지 기록된 대기 시간을 라벨별로 출력용 문자열로 만들고 비운다. 기록이 없으면 null.
+     */
+    public static String drainSummary() {
+        if (TIMINGS.isEmpty()) return null;
+        Map<String, String> lines = new TreeMap<>();
+        for (String label : TIMINGS.keySet()) {
+            Timing timing = TIMINGS.remove(label);
+            if (timing != null) lines.put(label, timing.toString());
+        }
+        StringBuilder sb = new StringBuilder("⏱ 대기 시간");
+        lines.forEach((label, line) -> sb.append("\n - ").append(label).append(": ").append(line));
+        return sb.toString();
+    }
+}
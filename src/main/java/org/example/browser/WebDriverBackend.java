@@ -0,0 +1,95 @@
+package org.example.browser;
+
+import org.jsoup.nodes.Document;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * chromedriver(WebDriver HTTP 프로토콜)로 조작하는 기존 방식의 백엔드
+ * - 응답 기록은 Resource Timing API 로 대신한다. (상태 코드는 알 수 없어 0)
+ */
+public class WebDriverBackend implements BrowserBackend {
+
+    private static final String DRAIN_RESOURCES_SCRIPT =
+            "var seen = window.__scrdSeenResources || 0;" +
+            "var entries = performance.getEntriesByType('resource');" +
+            "window.__scrdSeenResources = entries.length;" +
+            "return entries.slice(seen).map(function (e) { return { url: e.name, type: e.initiatorType }; });";
+
+    // 풀에서 빌린 경우에만 있음 (밖에서 받은 드라이버는 닫지 않음)
+    private final WebDriverPool.Lease lease;
+    private final WebDriver driver;
+
+    public WebDriverBackend(WebDriverPool.Lease lease) {
+        this.lease = lease;
+        this.driver = null;
+    }
+
+    public WebDriverBackend(WebDriver driver) {
+        this.lease = null;
+        this.driver = driver;
+    }
+
+    @Override
+    public String name() {
+        return "webdriver";
+    }
+
+    @Override
+    public WebDriver driver() {
+        return (lease != null) ? lease.driver() : driver;
+    }
+
+    @Override
+    public void navigate(String url) {
+        driver().get(url);
+    }
+
+    @Override
+    public Object evaluate(String script) {
+        return ((JavascriptExecutor) driver()).executeScript(script);
+    }
+
+    @Override
+    public boolean waitFor(String cssSelector, Duration timeout) {
+        try {
+            Waits.until(driver(), "webdriver 요소 대기", timeout,
+                    d -> d.findElements(By.cssSelector(cssSelector)).isEmpty() ? null : Boolean.TRUE);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public Document snapshot() {
+        return PageSnapshot.page(driver());
+    }
+
+    @Override
+    public List<Response> drainResponses() {
+        List<Response> responses = new ArrayList<>();
+        Object entries = evaluate(DRAIN_RESOURCES_SCRIPT);
+        if (entries instanceof List) {
+            for (Object entry : (List<?>) entries) {
+                Map<?, ?> map = (Map<?, ?>) entry;
+                responses.add(new Response(String.valueOf(map.get("url")), 0, String.valueOf(map.get("type"))));
+            }
+        }
+        return responses;
+    }
+
+    @Override
+    public void close() {
+        if (lease != null) {
+            lease.close();
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package org.example.browser;
+
+import org.example.config.Env;
+import org.example.config.MongoConfig;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Selenium 크롤러가 공유하는 크롬 세션 풀
+ * - 크롤러마다 매 주기 ChromeDriver 를 새로 띄우고 종료하던 구조를 대체한다.
+ * - lease() 로 세션을 빌리고, Lease.close() 로 반납하면 상태를 초기화한 뒤 다음 크롤러가 재사용
+ * - 빌려줄 때 세션이 살아 있는지 확인하고, 죽었거나 오래 놀던 세션은 버리고 새로 띄운다.
+ * - 반납 시 초기화: 알림창 닫기, 추가 창 닫기, 쿠키/localStorage/sessionStorage 삭제, about:blank 이동
+ *
+ * 세션 수명 관리
+ * - 세션별 페이지 이동 횟수 / 크롬 프로세스 RSS / 사용 시간이 기준을 넘으면 반납 시(또는 Lease.run 단계 사이에) 재시작
+ *   (오래 띄운 크롬은 렌더러 메모리가 계속 늘어나므로 주기적으로 새로 띄워 메모리를 평탄하게 유지)
+ * - 세션마다 BROWSER_PROFILE_ROOT 아래 별도 프로필을 쓰고 종료 시 삭제 (이전 JVM이 남긴 프로필은 시작 시 정리)
+ * - Lease.run 단계 실행 중 크롬이 죽으면 새 세션으로 바꿔 그 단계부터 다시 실행
+ *
+ * 환경 변수
+ * - BROWSER_POOL_SIZE: 동시에 띄울 수 있는 크롬 세션 수 (기본 MAX_BROWSERS, 없으면 2)
+ * - BROWSER_POOL_WARM: 런타임 시작 시 미리 띄워 둘 세션 수 (기본 0, 처음 빌릴 때 띄움)
+ * - BROWSER_POOL_IDLE_SECONDS: 이 시간 이상 사용되지 않은 세션은 종료 (기본 300초, trimIdle() 또는 다음 lease() 때)
+ * - BROWSER_LEASE_TIMEOUT_SECONDS: 세션을 빌리기 위해 기다리는 최대 시간 (기본 300초)
+ * - BROWSER_MAX_PAGES: 세션 하나가 이동할 수 있는 최대 페이지 수 (기본 300)
+ * - BROWSER_MAX_RSS_MB: 세션 하나의 크롬 프로세스 RSS 합 상한 (기본 1024MB)
+ * - BROWSER_MAX_AGE_SECONDS: 세션 최대 사용 시간 (기본 3600초)
+ * - BROWSER_CRASH_RETRIES: 크롬이 죽었을 때 새 세션으로 다시 시도하는 횟수 (기본 2)
+ * - BROWSER_PROFILE_ROOT: 세션 프로필 디렉터리 위치 (기본 /dev/shm/scrd-chrome, /dev/shm 이 없으면 임시 디렉터리)
+ */
+public class WebDriverPool {
+
+    private static volatile WebDriverPool shared;
+
+    @FunctionalInterface
+    public interface DriverStep {
+        void run(WebDriver driver) throws Exception;
+    }
+
+    private final int size;
+    private final long idleMillis;
+    private final long leaseTimeoutSeconds;
+    private final int maxPages;
+    private final long maxRssBytes;
+    private final long maxAgeMillis;
+    private final int crashRetries;
+    private final Path profileRoot;
+    // 동시에 빌려줄 수 있는 세션 수 (놀고 있는 세션이 없을 때만 새로 띄우므로 전체 크롬 수도 size 이하)
+    private final Semaphore permits;
+    // 반납된 세션 (가장 최근에 반납된 것부터 재사용)
+    private final Deque<IdleSession> idle = new ArrayDeque<>();
+    private volatile boolean closed;
+
+    private static class IdleSession {
+        final BrowserSession session;
+        final long returnedAt;
+        IdleSession(BrowserSession session, long returnedAt) {
+            this.session = session;
+            this.returnedAt = returnedAt;
+        }
+    }
+
+    /**
+     * 빌린 세션. try-with-resources 로 사용하면 자동 반납된다.
+     */
+    public class Lease implements AutoCloseable {
+        private BrowserSession session;
+        private boolean broken;
+        private boolean released;
+
+        private Lease(BrowserSession session) {
+            this.session = session;
+        }
+
+        /**
+         * 현재 세션의 드라이버. run() 안에서 세션이 바뀔 수 있으므로 단계마다 넘겨받은 드라이버를 쓴다.
+         */
+        public WebDriver driver() {
+            return session.driver();
+        }
+
+        public BrowserSession session() {
+            return session;
+        }
+
+        /**
+         * 세션이 망가져 재사용하면 안 될 때 호출 (반납 시 종료됨)
+         */
+        public void invalidate() {
+            broken = true;
+        }
+
+        /**
+         * 크롤링 한 단계(테마 하나, 날짜 하나 등)를 실행한다.
+         * - 시작 전에 세션이 수명 기준을 넘었으면 새 세션으로 교체
+         * - 실행 중 크롬이 죽으면 새 세션으로 바꾸고 같은 단계를 다시 실행 (최대 BROWSER_CRASH_RETRIES 회)
+         * - 크롬은 살아 있는데 실패한 경우(요소 없음 등)는 그대로 예외를 던진다.
+         */
+        public void run(String label, DriverStep step) throws Exception {
+            if (recycleReason(session) != null) {
+                restart("재시작 기준 초과: " + recycleReason(session));
+            }
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    step.run(session.driver());
+                    return;
+                } catch (Exception e) {
+                    if (session.isAlive() || attempt >= crashRetries) {
+                        throw e;
+                    }
+                    restart("크롬 세션 종료 감지 (" + label + ")");
+                }
+            }
+        }
+
+        private void restart(String reason) {
+            System.err.println("♻ " + reason + " → 새 크롬 세션으로 교체합니다.");
+            session.close();
+            session = newSession();
+        }
+
+        @Override
+        public void close() {
+            if (released) return;
+            released = true;
+            release(session, broken);
+        }
+    }
+
+    public WebDriverPool(int size, long idleSeconds, long leaseTimeoutSeconds,
+                         int maxPages, long maxRssMb, long maxAgeSeconds, int crashRetries, Path profileRoot) {
+        this.size = size;
+        this.idleMillis = idleSeconds * 1000;
+        this.leaseTimeoutSeconds = leaseTimeoutSeconds;
+        this.maxPages = maxPages;
+        this.maxRssBytes = maxRssMb * 1024 * 1024;
+        this.maxAgeMillis = maxAgeSeconds * 1000;
+        this.crashRetries = crashRetries;
+        this.profileRoot = profileRoot;
+        this.permits = new Semaphore(size, true);
+        cleanProfileRoot();
+    }
+
+    // 공유 풀을 가져오는 메서드 (싱글톤 패턴으로 구현)
+    public static WebDriverPool shared() {
+        if (shared == null) {
+            synchronized (WebDriverPool.class) {
+                if (shared == null) {
+                    int size = Env.getInt("BROWSER_POOL_SIZE", Env.getInt("MAX_BROWSERS", 2));
+                    shared = new WebDriverPool(
+                            Math.max(1, size),
+                            Env.getLong("BROWSER_POOL_IDLE_SECONDS", 300),
+                            Env.getLong("BROWSER_LEASE_TIMEOUT_SECONDS", 300),
+                            Env.getInt("BROWSER_MAX_PAGES", 300),
+                            Env.getLong("BROWSER_MAX_RSS_MB", 1024),
+                            Env.getLong("BROWSER_MAX_AGE_SECONDS", 3600),
+                            Env.getInt("BROWSER_CRASH_RETRIES", 2),
+                            Paths.get(Env.getString("BROWSER_PROFILE_ROOT", defaultProfileRoot()))
+                    );
+                    // 애플리케이션 종료 시 크롬 정리 (크롤러 런타임이 멈춘 뒤, 실행 중인 주기가 세션을 빌릴 수 있도록)
+                    MongoConfig.beforeClose(shared::close);
+                }
+            }
+        }
+        return shared;
+    }
+
+    private static String defaultProfileRoot() {
+        Path shm = Paths.get("/dev/shm");
+        Path base = Files.isDirectory(shm) ? shm : Paths.get(System.getProperty("java.io.tmpdir"));
+        return base.resolve("scrd-chrome").toString();
+    }
+
+    /**
+     * 세션을 빌린다. 모두 빌려간 상태면 반납될 때까지 기다린다.
+     */
+    public Lease lease() {
+        if (closed) {
+            throw new IllegalStateException("WebDriverPool 이 종료되었습니다.");
+        }
+        try {
+            if (!permits.tryAcquire(leaseTimeoutSeconds, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("크롬 세션을 " + leaseTimeoutSeconds + "초 안에 빌리지 못했습니다.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("크롬 세션 대기 중 인터럽트", e);
+        }
+        try {
+            BrowserSession session = takeHealthyIdle();
+            if (session == null) {
+                session = newSession();
+            }
+            return new Lease(session);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 런타임 시작 시 세션을 미리 띄워 둔다. (첫 크롤러가 크롬 기동 시간을 기다리지 않도록)
+     */
+    public void warmUp(int count) {
+        int target = Math.min(count, size);
+        for (int i = 0; i < target; i++) {
+            if (!permits.tryAcquire()) return;
+            try {
+                BrowserSession session = newSession();
+                synchronized (idle) {
+                    idle.push(new IdleSession(session, System.currentTimeMillis()));
+                }
+            } catch (Exception e) {
+                System.err.println("⚠ 크롬 세션 미리 띄우기 실패: " + e.getMessage());
+            } finally {
+                permits.release();
+            }
+        }
+        System.out.println("🔥 크롬 세션 " + idleCount() + "개 준비됨 (풀 크기 " + size + ")");
+    }
+
+    /**
+     * idle 시간을 넘긴 세션을 종료한다. (폴백으로 잠깐 띄운 크롬이 계속 남아 있지 않도록)
+     */
+    public void trimIdle() {
+        List<BrowserSession> expired = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        synchronized (idle) {
+            Iterator<IdleSession> it = idle.iterator();
+            while (it.hasNext()) {
+                IdleSession idleSession = it.next();
+                if (now - idleSession.returnedAt > idleMillis) {
+                    expired.add(idleSession.session);
+                    it.remove();
+                }
+            }
+        }
+        for (BrowserSession session : expired) {
+            session.close();
+        }
+        if (!expired.isEmpty()) {
+            System.out.println("💤 놀고 있던 크롬 세션 " + expired.size() + "개 종료");
+        }
+    }
+
+    /**
+     * 공유 풀이 만들어진 경우에만 trimIdle() (크롬을 쓴 적이 없으면 풀도 만들지 않음)
+     */
+    public static void trimSharedIdle() {
+        WebDriverPool pool = shared;
+        if (pool != null) {
+            pool.trimIdle();
+        }
+    }
+
+    public int idleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private BrowserSession newSession() {
+        return BrowserSession.start(profileRoot);
+    }
+
+    /**
+     * 놀고 있는 세션 중 살아 있는 것을 꺼낸다. 오래됐거나 응답이 없는 세션은 종료한다.
+     */
+    private BrowserSession takeHealthyIdle() {
+        while (true) {
+            IdleSession idleSession;
+            synchronized (idle) {
+                idleSession = idle.poll();
+            }
+            if (idleSession == null) return null;
+
+            if (System.currentTimeMillis() - idleSession.returnedAt > idleMillis) {
+                idleSession.session.close();
+                continue;
+            }
+            if (idleSession.session.isAlive()) {
+                return idleSession.session;
+            }
+            System.err.println("⚠ 응답 없는 크롬 세션을 버리고 새로 띄웁니다.");
+            idleSession.session.close();
+        }
+    }
+
+    private void release(BrowserSession session, boolean broken) {
+        try {
+            String reason = recycleReason(session);
+            if (reason != null) {
+                System.out.println("♻ 크롬 세션 재시작 (" + reason + ")");
+            }
+            if (closed || broken || reason != null || !reset(session.rawDriver())) {
+                session.close();
+                return;
+            }
+            synchronized (idle) {
+                idle.push(new IdleSession(session, System.currentTimeMillis()));
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * 세션을 새로 띄워야 하는 이유. 기준 이내면 null.
+     */
+    private String recycleReason(BrowserSession session) {
+        if (session.pageCount() >= maxPages) {
+            return "페이지 " + session.pageCount() + "회";
+        }
+        if (session.ageMillis() >= maxAgeMillis) {
+            return "사용 시간 " + (session.ageMillis() / 1000) + "초";
+        }
+        long rss = session.rssBytes();
+        if (rss >= maxRssBytes) {
+            return "RSS " + (rss / (1024 * 1024)) + "MB";
+        }
+        return null;
+    }
+
+    /**
+     * 다음 크롤러가 이전 크롤러의 상태를 보지 않도록 세션을 초기화한다. 실패하면 false.
+     */
+    static boolean reset(WebDriver driver) {
+        try {
+            // 떠 있는 alert/confirm 닫기
+            try {
+                driver.switchTo().alert().dismiss();
+            } catch (NoAlertPresentException ignored) {
+            }
+
+            // 팝업 등으로 열린 창은 닫고 첫 창만 남긴다
+            String first = null;
+            for (String handle : driver.getWindowHandles()) {
+                if (first == null) {
+                    first = handle;
+                    continue;
+                }
+                driver.switchTo().window(handle).close();
+            }
+            driver.switchTo().window(first);
+
+            // 현재 출처의 storage 는 페이지에 있을 때만 지울 수 있다
+            try {
+                ((JavascriptExecutor) driver).executeScript(
+                        "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            } catch (Exception ignored) {
+            }
+            driver.manage().deleteAllCookies();
+            driver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            System.err.println("⚠ 크롬 세션 초기화 실패: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 이전 JVM 이 비정상 종료하며 남긴 프로필 디렉터리를 지운다.
+     */
+    private void cleanProfileRoot() {
+        if (!Files.isDirectory(profileRoot)) return;
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(profileRoot, "session-*")) {
+            for (Path dir : leftovers) {
+                BrowserSession.deleteRecursively(dir);
+            }
+        } catch (IOException e) {
+            System.err.println("⚠ 크롬 프로필 정리 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 놀고 있는 세션을 모두 종료한다. (빌려간 세션은 반납 시 종료됨)
+     */
+    public void close() {
+        closed = true;
+        synchronized (idle) {
+            for (IdleSession idleSession : idle) {
+                idleSession.session.close();
+            }
+            idle.clear();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.common;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP 우선 크롤링에서 브라우저 폴백이 얼마나 자주 일어나는지 기록한다.
+ * - 크롤러가 HTTP 로 처리한 단위 수와 그중 브라우저로 다시 처리한 단위 수를 사이트별로 record()
+ * - drainSummary(): 지난 출력 이후 기록과 런타임 시작 이후 누적 비율을 출력용 문자열로
+ *   (폴백 비율이 오르면 사이트 마크업/차단 정책이 바뀐 것이므로 HTTP 파서를 손봐야 한다)
+ */
+public class FallbackStats {
+
+    private static final Map<String, Counter> RECENT = new ConcurrentHashMap<>();
+    private static final Map<String, Counter> TOTAL = new ConcurrentHashMap<>();
+
+    private static class Counter {
+        final AtomicLong units = new AtomicLong();
+        final AtomicLong fallbacks = new AtomicLong();
+
+        void add(long unitCount, long fallbackCount) {
+            units.addAndGet(unitCount);
+            fallbacks.addAndGet(fallbackCount);
+        }
+
+        @Override
+        public String toString() {
+            long n = units.get();
+            long f = fallbacks.get();
+            return f + "/" + n + " (" + (n == 0 ? 0 : Math.round(f * 1000.0 / n) / 10.0) + "%)";
+        }
+    }
+
+    /**
+     * @param units     HTTP 로 시도한 단위 수 (예: 지점 × 날짜)
+     * @param fallbacks 그중 검증에 실패해서 브라우저로 다시 처리한 단위 수
+     */
+    public static void record(String site, int units, int fallbacks) {
+        RECENT.computeIfAbsent(site, k -> new Counter()).add(units, fallbacks);
+        TOTAL.computeIfAbsent(site, k -> new Counter()).add(units, fallbacks);
+    }
+
+    /**
+     * 지난 호출 이후 기록을 사이트별로 출력용 문자열로 만들고 비운다. 기록이 없으면 null.
+     */
+    public static String drainSummary() {
+        if (RECENT.isEmpty()) return null;
+        Map<String, String> lines = new TreeMap<>();
+        for (String site : RECENT.keySet()) {
+            Counter recent = RECENT.remove(site);
+            if (recent != null) {
+                lines.put(site, recent + ", 누적 " + TOTAL.get(site));
+            }
+        }
+        StringBuilder sb = new StringBuilder("🌐 브라우저 폴백");
+        lines.forEach((site, line) -> sb.append("\n - ").append(site).append(": ").append(line));
+        return sb.toString();
+    }
+}
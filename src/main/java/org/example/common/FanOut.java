@@ -0,0 +1,66 @@
+package org.example.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 여러 건의 요청을 동시에 실행하고 결과를 입력 순서대로 돌려주는 헬퍼
+ * - 동시 실행 수는 maxConcurrency 로 제한 (대상 호스트별 동시 요청 상한으로 사용)
+ * - 개별 작업이 실패하거나 취소되면 해당 위치의 결과는 null (결과 수는 항상 입력 수와 같다)
+ * - 콘솔 출력/DB 저장은 호출한 쪽에서 결과 순서대로 처리한다.
+ */
+public class FanOut {
+
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger(1);
+
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "fanout-" + THREAD_NUMBER.getAndIncrement());
+        t.setDaemon(true);
+        return t;
+    });
+
+    public static <T, R> List<R> mapOrdered(List<T> inputs, int maxConcurrency, Function<T, R> task) {
+        Semaphore permits = new Semaphore(Math.max(1, maxConcurrency));
+        List<Future<R>> futures = new ArrayList<>(inputs.size());
+
+        try {
+            for (T input : inputs) {
+                // 동시 실행 수를 넘으면 앞선 작업이 끝날 때까지 제출을 멈춘다
+                permits.acquire();
+                futures.add(EXECUTOR.submit(() -> {
+                    try {
+                        return task.apply(input);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        } catch (InterruptedException e) {
+            // 종료 중 인터럽트: 남은 작업은 취소하고 입력 수만큼 null 로 채워 돌려준다
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            return new ArrayList<>(Collections.nCopies(inputs.size(), null));
+        }
+
+        List<R> results = new ArrayList<>(inputs.size());
+        for (Future<R> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                System.err.println("❌ 동시 요청 작업 오류: " + e.getCause());
+                results.add(null);
+            } catch (InterruptedException e) {
+                futures.forEach(f -> f.cancel(true));
+                Thread.currentThread().interrupt();
+                results.add(null);
+            } catch (CancellationException e) {
+                results.add(null);
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.common;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * 페이지가 보내는 XHR/fetch 요청과 응답을 기록한다.
+ * - 페이지 로드 후 install() 로 XMLHttpRequest / fetch 를 감싸고,
+ *   날짜/테마 클릭 등으로 요청이 나간 뒤 drain() 으로 꺼낸다.
+ * - 꺼낸 요청은 브라우저 쿠키(cookieHeader)와 함께 HttpConfig 로 재전송할 수 있다.
+ */
+public class XhrCapture {
+
+    /**
+     * 기록된 요청/응답 한 건
+     */
+    public static class Exchange {
+        public final String method;
+        public final String url;
+        public final Map<String, String> headers;
+        public final String requestBody;   // 문자열 본문이 아니면 null
+        public final int status;
+        public final String responseText;
+
+        Exchange(String method, String url, Map<String, String> headers, String requestBody, int status, String responseText) {
+            this.method = method;
+            this.url = url;
+            this.headers = headers;
+            this.requestBody = requestBody;
+            this.status = status;
+            this.responseText = responseText;
+        }
+    }
+
+    private static final String HOOK_SCRIPT =
+            "if (window.__xhrCapture) return;"
+            + "window.__xhrCapture = [];"
+            + "var open = XMLHttpRequest.prototype.open, send = XMLHttpRequest.prototype.send,"
+            + "    setHeader = XMLHttpRequest.prototype.setRequestHeader;"
+            + "XMLHttpRequest.prototype.open = function(method, url) {"
+            + "  this.__cap = {method: method, url: new URL(url, location.href).href, headers: {}};"
+            + "  return open.apply(this, arguments);"
+            + "};"
+            + "XMLHttpRequest.prototype.setRequestHeader = function(name, value) {"
+            + "  if (this.__cap) this.__cap.headers[name] = value;"
+            + "  return setHeader.apply(this, arguments);"
+            + "};"
+            + "XMLHttpRequest.prototype.send = function(body) {"
+            + "  var xhr = this;"
+            + "  if (xhr.__cap) {"
+            + "    xhr.__cap.body = (typeof body === 'string') ? body : null;"
+            + "    xhr.addEventListener('loadend', function() {"
+            + "      xhr.__cap.status = xhr.status;"
+            + "      try { xhr.__cap.response = xhr.responseText; } catch (e) { xhr.__cap.response = null; }"
+            + "      window.__xhrCapture.push(xhr.__cap);"
+            + "    });"
+            + "  }"
+            + "  return send.apply(this, arguments);"
+            + "};"
+            + "if (window.fetch) {"
+            + "  var originalFetch = window.fetch;"
+            + "  window.fetch = function(input, init) {"
+            + "    var cap = {method: (init && init.method) || 'GET',"
+            + "      url: new URL((typeof input === 'string') ? input : input.url, location.href).href,"
+            + "      headers: (init && init.headers && !(init.headers instanceof Headers)) ? init.headers : {},"
+            + "      body: (init && typeof init.body === 'string') ? init.body : null};"
+            + "    return originalFetch.apply(this, arguments).then(function(res) {"
+            + "      res.clone().text().then(function(text) {"
+            + "        cap.status = res.status; cap.response = text; window.__xhrCapture.push(cap);"
+            + "      });"
+            + "      return res;"
+            + "    });"
+            + "  };"
+            + "}";
+
+    /**
+     * 현재 페이지에 기록 훅을 설치한다. (페이지를 새로 불러오면 다시 설치해야 함)
+     */
+    public static void install(WebDriver driver) {
+        ((JavascriptExecutor) driver).executeScript(HOOK_SCRIPT);
+    }
+
+    /**
+     * 지금까지 기록된 요청을 꺼내고 기록을 비운다.
+     */
+    public static List<Exchange> drain(WebDriver driver) {
+        Object raw = ((JavascriptExecutor) driver).executeScript(
+                "var captured = window.__xhrCapture || []; window.__xhrCapture = []; return JSON.stringify(captured);");
+
+        List<Exchange> exchanges = new ArrayList<>();
+        if (raw == null) return exchanges;
+
+        JSONArray array = new JSONArray(raw.toString());
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject item = array.getJSONObject(i);
+            Map<String, String> headers = new LinkedHashMap<>();
+            JSONObject headerObj = item.optJSONObject("headers");
+            if (headerObj != null) {
+                for (String name : headerObj.keySet()) {
+                    headers.put(name, String.valueOf(headerObj.get(name)));
+                }
+            }
+            exchanges.add(new Exchange(
+                    item.optString("method", "GET").toUpperCase(),
+                    item.optString("url", ""),
+                    headers,
+                    item.isNull("body") ? null : item.optString("body", null),
+                    item.optInt("status", 0),
+                    item.isNull("response") ? null : item.optString("response", null)
+            ));
+        }
+        return exchanges;
+    }
+
+    /**
+     * 브라우저 세션 쿠키를 Cookie 헤더 값으로 만든다.
+     */
+    public static String cookieHeader(WebDriver driver) {
+        StringJoiner joiner = new StringJoiner("; ");
+        for (Cookie cookie : driver.manage().getCookies()) {
+            joiner.add(cookie.getName() + "=" + cookie.getValue());
+        }
+        return joiner.toString();
+    }
+}
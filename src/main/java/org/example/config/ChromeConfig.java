@@ -0,0 +1,60 @@
+package org.example.config;
+
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.io.File;
+import java.nio.file.Path;
+
+/**
+ * Selenium 크롤러 공통 Chrome 설정
+ * - 크롤러마다 복사되어 있던 ChromeOptions 구성을 한 곳으로 모음
+ * - 한 JVM에서 여러 크롬이 동시에 뜰 수 있으므로 --user-data-dir 을 공유하지 않는다.
+ *   (지정하지 않으면 chromedriver가 세션별 임시 프로필을 만들고 종료 시 정리함,
+ *    세션 풀은 세션마다 tmpfs 아래 프로필 디렉터리를 직접 만들어 넘긴다)
+ */
+public class ChromeConfig {
+    // Docker 이미지에 설치된 크롬/크롬드라이버 경로
+    private static final String CHROME_BINARY = "/opt/chrome/chrome";
+    private static final String CHROMEDRIVER_PATH = "/usr/local/bin/chromedriver";
+
+    public static ChromeOptions createOptions() {
+        if (new File(CHROMEDRIVER_PATH).exists()) {
+            System.setProperty("webdriver.chrome.driver", CHROMEDRIVER_PATH);
+        }
+
+        ChromeOptions options = new ChromeOptions();
+        if (new File(CHROME_BINARY).exists()) {
+            options.setBinary(CHROME_BINARY);
+        }
+        options.addArguments("--headless");
+        options.addArguments("--lang=ko"); // 한국어 로케일
+        options.addArguments("--no-sandbox");
+        options.addArguments("--disable-dev-shm-usage");
+        options.addArguments("--disable-gpu");
+        options.addArguments("--remote-allow-origins=*");
+        options.addArguments("--disable-background-networking");
+        // 탭 여러 개를 동시에 쓸 때 뒤에 있는 탭의 타이머/렌더링이 느려지지 않도록
+        options.addArguments("--disable-background-timer-throttling");
+        options.addArguments("--disable-renderer-backgrounding");
+        options.addArguments("--disable-backgrounding-occluded-windows");
+        // DOMContentLoaded 에서 바로 반환 (이미지 등 남은 리소스는 기다리지 않고, 필요한 요소는 크롤러가 직접 대기)
+        options.setPageLoadStrategy(PageLoadStrategy.EAGER);
+        return options;
+    }
+
+    public static WebDriver createDriver() {
+        return new ChromeDriver(createOptions());
+    }
+
+    /**
+     * 지정한 프로필 디렉터리를 쓰는 크롬 (디렉터리 정리는 호출한 쪽에서 담당)
+     */
+    public static WebDriver createDriver(Path profileDir) {
+        ChromeOptions options = createOptions();
+        options.addArguments("--user-data-dir=" + profileDir);
+        return new ChromeDriver(options);
+    }
+}
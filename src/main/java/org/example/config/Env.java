@@ -0,0 +1,36 @@
+package org.example.config;
+
+/**
+ * 환경 변수 조회 헬퍼
+ * - docker-compose의 environment 항목으로 런타임 설정을 주입하기 위해 사용
+ * - 값이 없거나 형식이 잘못되면 기본값을 사용한다.
+ */
+public class Env {
+
+    public static String getString(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return (value == null || value.isBlank()) ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("⚠ 환경 변수 " + name + " 형식 오류, 기본값 사용: " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static long getLong(String name, long defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) return defaultValue;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("⚠ 환경 변수 " + name + " 형식 오류, 기본값 사용: " + defaultValue);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package org.example.config;
+
+import okhttp3.*;
+import okhttp3.brotli.BrotliInterceptor;
+import org.jsoup.Jsoup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 브라우저를 쓰지 않는 크롤러가 공유하는 OkHttpClient
+ * - 요청마다 new OkHttpClient() 를 만들면 커넥션 풀/디스패처 스레드/TLS 세션을 매번 버리게 되므로
+ *   JVM 전체에서 하나의 클라이언트를 재사용한다. (MongoConfig 와 같은 싱글톤 구조)
+ * - 호스트별 keep-alive 커넥션 재사용, HTTP/2, gzip/brotli, DNS 캐시, 공통 타임아웃
+ *
+ * 환경 변수
+ * - HTTP_MAX_IDLE_CONNECTIONS: 커넥션 풀 최대 유휴 커넥션 수 (기본 16)
+ * - HTTP_MAX_REQUESTS_PER_HOST: 호스트별 동시 요청 수 (기본 6)
+ * - HTTP_DNS_TTL_SECONDS: DNS 조회 결과 캐시 시간 (기본 300초)
+ */
+public class HttpConfig {
+    // 일부 사이트가 okhttp 기본 User-Agent 를 막는 경우가 있어 브라우저와 같은 값을 사용
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 "
+            + "(KHTML, like Gecko) Chrome/132.0.0.0 Safari/537.36";
+
+    private static volatile OkHttpClient httpClient;
+
+    // OkHttpClient를 가져오는 메서드 (싱글톤 패턴으로 구현)
+    public static OkHttpClient getHttpClient() {
+        if (httpClient == null) {
+            synchronized (HttpConfig.class) {
+                if (httpClient == null) {
+                    Dispatcher dispatcher = new Dispatcher();
+                    dispatcher.setMaxRequests(64);
+                    dispatcher.setMaxRequestsPerHost(maxRequestsPerHost());
+
+                    httpClient = new OkHttpClient.Builder()
+                            .connectionPool(new ConnectionPool(Env.getInt("HTTP_MAX_IDLE_CONNECTIONS", 16), 5, TimeUnit.MINUTES))
+                            .dispatcher(dispatcher)
+                            .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                            .connectTimeout(5, TimeUnit.SECONDS)
+                            .readTimeout(15, TimeUnit.SECONDS)
+                            .writeTimeout(10, TimeUnit.SECONDS)
+                            .callTimeout(30, TimeUnit.SECONDS)
+                            .retryOnConnectionFailure(true)
+                            .dns(new CachingDns(Env.getLong("HTTP_DNS_TTL_SECONDS", 300)))
+                            .addInterceptor(chain -> {
+                                Request request = chain.request();
+                                if (request.header("User-Agent") != null) {
+                                    return chain.proceed(request);
+                                }
+                                return chain.proceed(request.newBuilder().header("User-Agent", USER_AGENT).build());
+                            })
+                            // Accept-Encoding: br,gzip 을 붙이고 응답을 투명하게 해제
+                            .addInterceptor(BrotliInterceptor.INSTANCE)
+                            .build();
+
+                    // 애플리케이션 종료 시 스레드/커넥션 정리 (크롤러 런타임이 멈춘 뒤, 비동기 요청이 거부되지 않도록)
+                    MongoConfig.beforeClose(() -> {
+                        httpClient.dispatcher().executorService().shutdown();
+                        httpClient.connectionPool().evictAll();
+                    });
+                }
+            }
+        }
+        return httpClient;
+    }
+
+    /**
+     * 한 호스트에 동시에 보낼 요청 수 상한 (동기 호출을 동시에 실행할 때도 이 값을 따른다)
+     */
+    public static int maxRequestsPerHost() {
+        return Env.getInt("HTTP_MAX_REQUESTS_PER_HOST", 6);
+    }
+
+    /**
+     * 요청을 실행하고 응답 본문을 문자열로 반환한다. 실패 시 null.
+     */
+    public static String fetchString(Request request) {
+        try (Response response = getHttpClient().newCall(request).execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                System.err.println("❌ 요청 실패: " + response);
+                return null;
+            }
+            return response.body().string();
+        } catch (IOException e) {
+            System.err.println("❌ 요청 오류 (" + request.url() + "): " + e.getMessage());
+            return null;
+        }
+    }
+
+    public static String fetchString(String url) {
+        return fetchString(new Request.Builder().url(url).get().build());
+    }
+
+    /**
+     * 요청을 실행하고 Jsoup Document로 파싱한다. 실패 시 null.
+     * - Content-Type 에 charset이 없으면 Jsoup이 meta 태그로 인코딩을 판별 (Jsoup.connect 와 동일)
+     */
+    public static org.jsoup.nodes.Document fetchDocument(Request request) {
+        try (Response response = getHttpClient().newCall(request).execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                System.err.println("❌ 요청 실패: " + response);
+                return null;
+            }
+            ResponseBody body = response.body();
+            Charset charset = (body.contentType() != null) ? body.contentType().charset() : null;
+            try (InputStream in = body.byteStream()) {
+                return Jsoup.parse(in, (charset != null) ? charset.name() : null, request.url().toString());
+            }
+        } catch (IOException e) {
+            System.err.println("❌ 요청 오류 (" + request.url() + "): " + e.getMessage());
+            return null;
+        }
+    }
+
+    public static org.jsoup.nodes.Document fetchDocument(String url) {
+        return fetchDocument(new Request.Builder().url(url).get().build());
+    }
+
+    /**
+     * 크롤링 주기 시작 시 대상 호스트에 미리 연결해 둔다.
+     * - DNS 조회 + TCP/TLS 핸드셰이크를 첫 실제 요청 전에 끝내 커넥션 풀에 넣어 둠
+     * - 실패해도 크롤링은 그대로 진행 (최대 5초 대기)
+     */
+    public static void prewarm(String... urls) {
+        Set<HttpUrl> roots = new LinkedHashSet<>();
+        for (String url : urls) {
+            HttpUrl parsed = HttpUrl.parse(url);
+            if (parsed != null) {
+                roots.add(parsed.newBuilder().encodedPath("/").query(null).build());
+            }
+        }
+
+        CountDownLatch latch = new CountDownLatch(roots.size());
+        for (HttpUrl root : roots) {
+            Request request = new Request.Builder().url(root).head().build();
+            getHttpClient().newCall(request).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    latch.countDown();
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    response.close();
+                    latch.countDown();
+                }
+            });
+        }
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 조회 결과를 TTL 동안 보관하는 DNS
+     */
+    private static class CachingDns implements Dns {
+        private final long ttlMillis;
+        private final Map<String, CachedAddresses> cache = new ConcurrentHashMap<>();
+
+        private static class CachedAddresses {
+            final List<InetAddress> addresses;
+            final long expiresAt;
+            CachedAddresses(List<InetAddress> addresses, long expiresAt) {
+                this.addresses = addresses;
+                this.expiresAt = expiresAt;
+            }
+        }
+
+        CachingDns(long ttlSeconds) {
+            this.ttlMillis = ttlSeconds * 1000;
+        }
+
+        @Override
+        public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+            long now = System.currentTimeMillis();
+            CachedAddresses cached = cache.get(hostname);
+            if (cached != null && cached.expiresAt > now) {
+                return cached.addresses;
+            }
+            List<InetAddress> addresses = Dns.SYSTEM.lookup(hostname);
+            cache.put(hostname, new CachedAddresses(addresses, now + ttlMillis));
+            return addresses;
+        }
+    }
+}
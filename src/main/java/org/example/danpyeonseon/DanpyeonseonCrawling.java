@@ -1,19 +1,17 @@
 package org.example.danpyeonseon;
 
-import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.model.UpdateOptions;
+import okhttp3.HttpUrl;
 import org.bson.Document;
-import org.example.config.MongoConfig;
-import org.openqa.selenium.By;
-import org.openqa.selenium.TimeoutException;
+import org.example.browser.BrowserBackend;
+import org.example.browser.BrowserBackends;
+import org.example.browser.Waits;
+import org.example.browser.WebDriverBackend;
+import org.example.common.FallbackStats;
+import org.example.common.FanOut;
+import org.example.config.HttpConfig;
+import org.example.storage.ReservationSink;
+import org.jsoup.nodes.Element;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
 import java.time.LocalDate;
@@ -52,118 +50,194 @@ public class DanpyeonseonCrawling {
 
     );
 
+    // 달력을 크롤링할 기간 (오늘 포함)
+    private static final int DAYS = 7;
+
     private final WebDriver driver;
-    private final MongoCollection<Document> reservationCollection;
+    private final ReservationSink reservationSink;
 
     // 날짜 -> (branch -> (theme -> times))
     private final Map<String, Map<String, Map<String, List<String>>>> finalMap;
 
+    /**
+     * HTTP 방식 (크롬은 HTTP 요청이 실패한 지점이 있을 때만 띄움)
+     */
+    public DanpyeonseonCrawling() {
+        this(null);
+    }
+
     public DanpyeonseonCrawling(WebDriver driver) {
         this.driver = driver;
-        MongoClient mongoClient = MongoConfig.getMongoClient();
-        MongoDatabase database = mongoClient.getDatabase("scrd");
-        this.reservationCollection = database.getCollection("reservation");
+        this.reservationSink = ReservationSink.shared();
         this.finalMap = new LinkedHashMap<>();
     }
 
-    public void crawlAllDates(String referenceDate) {
-        // URL별로 ThemeMapping을 묶어서 한 번만 페이지 로드
-        Map<String,List<ThemeMapping>> urlMap = new LinkedHashMap<>();
-        for(ThemeMapping tm : THEME_MAPPINGS) {
-            urlMap.putIfAbsent(tm.url, new ArrayList<>());
-            urlMap.get(tm.url).add(tm);
-        }
-        // 각 URL(=지점 페이지)에 접속
-        for(String url : urlMap.keySet()) {
-            List<ThemeMapping> list = urlMap.get(url);
-            String branchName = list.get(0).branch;
-
-            try {
-                driver.get(url);
-                new WebDriverWait(driver, Duration.ofSeconds(10))
-                        .until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(".booking_view_container")));
-                Thread.sleep(2000);
-
-                // 페이지에서 달력 정보를 수집
-                parseCalendar(list);
-            } catch(Exception e) {
-                System.err.println("["+branchName+"] 크롤링 오류: "+e.getMessage());
-                // 만약 전체 페이지 로딩 자체가 실패한 경우, branchName에 해당하는 모든 테마를 '없음' 처리
-                for (ThemeMapping tm : list) {
-                    saveToFinalMap(tm, referenceDate, Collections.emptyList());
-                }
-            }
+    /**
+     * (지점 URL, 월) 요청 단위
+     */
+    private static class FetchUnit {
+        String url;
+        LocalDate month; // 해당 월 1일
+        FetchUnit(String url, LocalDate month) {
+            this.url = url;
+            this.month = month;
         }
-
-        // 크롤링 후 최종 결과 출력
-        printFinalResults();
     }
 
     /**
-     * 예약 달력(td.booking_day)을 파싱하여, theme별로 예약 가능한 times를 찾는다.
+     * 두 지점의 예약 달력을 HTTP로 동시에 받아 한 번에 파싱한다.
+     * - 7일 기간이 다음 달로 넘어가면 다음 달 달력도 함께 요청
+     * - 이번 달 달력을 받지 못한 지점은 크롬으로 다시 시도
      */
-    private void parseCalendar(List<ThemeMapping> themeMappings) {
-        try {
-            // 오늘 날짜 구하기 (yyyy-MM-dd 형식)
-            String today = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+    public void crawlAllDates(String referenceDate) {
+        // URL별로 ThemeMapping을 묶어서 한 번만 요청
+        Map<String,List<ThemeMapping>> urlMap = groupByUrl();
 
-            List<WebElement> dateCells = driver.findElements(By.cssSelector("td.booking_day"));
-            for (WebElement dateCell : dateCells) {
-                String dataDateAttr = dateCell.getAttribute("data-date");
-                if (dataDateAttr == null || dataDateAttr.isEmpty()) continue;
+        LocalDate startDate = LocalDate.parse(referenceDate);
+        LocalDate endDate = startDate.plusDays(DAYS - 1);
+        LocalDate startMonth = startDate.withDayOfMonth(1);
+        LocalDate endMonth = endDate.withDayOfMonth(1);
 
-                // ⏩ 오늘 이전 날짜는 무시
-                if (dataDateAttr.compareTo(today) < 0) {
-                    continue;
-                }
+        // 첫 요청 전에 커넥션을 미리 열어 둔다
+        HttpConfig.prewarm(urlMap.keySet().toArray(new String[0]));
 
-                // 예약 가능 리스트
-                List<WebElement> bookingLists = dateCell.findElements(By.cssSelector("div.booking_list"));
-                if (bookingLists.isEmpty()) {
-                    for (ThemeMapping tm : themeMappings) {
-                        saveToDB(tm, dataDateAttr, Collections.emptyList());
-                        saveToFinalMap(tm, dataDateAttr, Collections.emptyList());
-                    }
-                    continue;
+        List<FetchUnit> units = new ArrayList<>();
+        for (String url : urlMap.keySet()) {
+            for (LocalDate month = startMonth; !month.isAfter(endMonth); month = month.plusMonths(1)) {
+                units.add(new FetchUnit(url, month));
+            }
+        }
+        List<org.jsoup.nodes.Document> docs = FanOut.mapOrdered(units, HttpConfig.maxRequestsPerHost(),
+                unit -> fetchCalendar(unit.url, unit.month, startMonth));
+
+        List<String> failedUrls = new ArrayList<>();
+        for (int i = 0; i < units.size(); i++) {
+            FetchUnit unit = units.get(i);
+            org.jsoup.nodes.Document doc = docs.get(i);
+            if (doc == null) {
+                if (unit.month.equals(startMonth)) {
+                    failedUrls.add(unit.url);
+                } else {
+                    System.err.println("[" + urlMap.get(unit.url).get(0).branch + "] " + unit.month.getMonthValue() + "월 달력 요청 실패");
                 }
+                continue;
+            }
+            // 이번 달은 오늘 이후 전체, 다음 달은 기간 안의 날짜만
+            String until = unit.month.equals(startMonth) ? null : endDate.toString();
+            parseCalendarDocument(doc, urlMap.get(unit.url), referenceDate, until);
+        }
 
-                Map<String, List<String>> themeTimesMap = new LinkedHashMap<>();
+        // 지점 달력(이번 달) 요청을 단위로 폴백 비율 기록
+        FallbackStats.record("danpyeonseon", urlMap.size(), failedUrls.size());
+        if (!failedUrls.isEmpty()) {
+            crawlWithBrowser(failedUrls, urlMap, referenceDate);
+        }
 
-                for (WebElement bookingItem : bookingLists) {
-                    String classAttr = bookingItem.getAttribute("class");
-                    boolean isClosed = classAttr.contains("closed") || classAttr.contains("disable");
-                    if (isClosed) continue;
+        // 크롤링 후 최종 결과 출력
+        printFinalResults();
+    }
 
-                    WebElement aTag = bookingItem.findElement(By.tagName("a"));
-                    String rawText = aTag.getText().trim();
-                    if (rawText.isEmpty() || rawText.equals("-")) continue;
+    private Map<String,List<ThemeMapping>> groupByUrl() {
+        Map<String,List<ThemeMapping>> urlMap = new LinkedHashMap<>();
+        for(ThemeMapping tm : THEME_MAPPINGS) {
+            urlMap.putIfAbsent(tm.url, new ArrayList<>());
+            urlMap.get(tm.url).add(tm);
+        }
+        return urlMap;
+    }
 
-                    String[] splitted = rawText.split("/");
-                    if (splitted.length < 2) continue;
+    /**
+     * 지점 예약 페이지의 달력을 받는다. 달력(td.booking_day)이 없으면 null.
+     * - 이번 달은 페이지 그대로, 다음 달은 date=yyyy-MM-01 파라미터로 요청
+     */
+    private org.jsoup.nodes.Document fetchCalendar(String url, LocalDate month, LocalDate startMonth) {
+        HttpUrl.Builder requestUrl = HttpUrl.get(url).newBuilder();
+        if (!month.equals(startMonth)) {
+            requestUrl.addQueryParameter("date", month.toString());
+        }
+        org.jsoup.nodes.Document doc = HttpConfig.fetchDocument(requestUrl.build().toString());
+        if (doc == null || doc.select("td.booking_day[data-date]").isEmpty()) {
+            return null;
+        }
+        // 다른 달 달력이 오면 (파라미터 미지원) 사용하지 않음
+        String monthPrefix = month.toString().substring(0, 7); // yyyy-MM
+        if (doc.select("td.booking_day[data-date^=" + monthPrefix + "]").isEmpty()) {
+            return null;
+        }
+        return doc;
+    }
 
-                    String themeName = splitted[0].trim();
-                    String timePart = splitted[1].trim();
-                    if (themeName.isEmpty() || timePart.isEmpty()) continue;
+    /**
+     * 달력 HTML 한 번의 파싱으로 날짜별 테마/시간을 구한다. (크롬 방식 parseCalendar 와 같은 규칙)
+     * @param from  이 날짜 이전은 무시 (yyyy-MM-dd)
+     * @param until 이 날짜 이후는 무시 (null 이면 제한 없음)
+     */
+    private void parseCalendarDocument(org.jsoup.nodes.Document doc, List<ThemeMapping> themeMappings, String from, String until) {
+        for (Element dateCell : doc.select("td.booking_day")) {
+            String dataDateAttr = dateCell.attr("data-date");
+            if (dataDateAttr.isEmpty()) continue;
+            if (dataDateAttr.compareTo(from) < 0) continue;
+            if (until != null && dataDateAttr.compareTo(until) > 0) continue;
+
+            Map<String, List<String>> themeTimesMap = new LinkedHashMap<>();
+            for (Element bookingItem : dateCell.select("div.booking_list")) {
+                if (bookingItem.hasClass("closed") || bookingItem.className().contains("disable")) continue;
+
+                Element aTag = bookingItem.selectFirst("a");
+                if (aTag == null) continue;
+                String rawText = aTag.text().trim();
+                if (rawText.isEmpty() || rawText.equals("-")) continue;
+
+                String[] splitted = rawText.split("/");
+                if (splitted.length < 2) continue;
+
+                String themeName = splitted[0].trim();
+                String timePart = splitted[1].trim();
+                if (themeName.isEmpty() || timePart.isEmpty()) continue;
+
+                themeTimesMap.computeIfAbsent(themeName, k -> new ArrayList<>()).add(timePart);
+            }
 
-                    themeTimesMap.putIfAbsent(themeName, new ArrayList<>());
-                    themeTimesMap.get(themeName).add(timePart);
-                }
+            for (ThemeMapping tm : themeMappings) {
+                List<String> times = themeTimesMap.getOrDefault(tm.title, Collections.emptyList());
+                saveToDB(tm, dataDateAttr, times);
+                saveToFinalMap(tm, dataDateAttr, times);
+            }
+        }
+    }
 
-                for (ThemeMapping tm : themeMappings) {
-                    if (themeTimesMap.containsKey(tm.title)) {
-                        List<String> times = themeTimesMap.get(tm.title);
-                        saveToDB(tm, dataDateAttr, times);
-                        saveToFinalMap(tm, dataDateAttr, times);
-                    } else {
-                        saveToDB(tm, dataDateAttr, Collections.emptyList());
-                        saveToFinalMap(tm, dataDateAttr, Collections.emptyList());
+    /**
+     * 크롬으로 지점 페이지를 열어 달력을 파싱하는 기존 방식
+     * - 생성자로 받은 driver 가 없으면 이 때만 세션 풀에서 크롬을 빌린다. (백엔드는 BROWSER_BACKEND_DANPYEONSEON)
+     */
+    private void crawlWithBrowser(List<String> urls, Map<String,List<ThemeMapping>> urlMap, String referenceDate) {
+        if (driver == null) {
+            System.err.println("⚠ [단편선] HTTP 요청 실패 지점이 있어 크롬으로 다시 시도합니다.");
+        }
+        try (BrowserBackend browser = (driver != null) ? new WebDriverBackend(driver) : BrowserBackends.open("danpyeonseon")) {
+            for (String url : urls) {
+                List<ThemeMapping> list = urlMap.get(url);
+                String branchName = list.get(0).branch;
+
+                try {
+                    browser.navigate(url);
+                    // 달력 칸이 그려지고 예약 목록이 더 바뀌지 않을 때까지 대기
+                    if (!browser.waitFor(".booking_view_container td.booking_day[data-date]", Duration.ofSeconds(10))) {
+                        throw new IllegalStateException("예약 달력이 표시되지 않음");
+                    }
+                    Waits.domQuiet(browser.driver(), "단편선 달력 안정화", 300, Duration.ofSeconds(5));
+
+                    // 화면 DOM 을 한 번에 받아서 HTTP 방식과 같은 파서로 처리 (오늘 이후 날짜만)
+                    String today = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+                    parseCalendarDocument(browser.snapshot(), list, today, null);
+                } catch(Exception e) {
+                    System.err.println("["+branchName+"] 크롤링 오류: "+e.getMessage());
+                    // 만약 전체 페이지 로딩 자체가 실패한 경우, branchName에 해당하는 모든 테마를 '없음' 처리
+                    for (ThemeMapping tm : list) {
+                        saveToFinalMap(tm, referenceDate, Collections.emptyList());
                     }
                 }
             }
-        } catch (TimeoutException e) {
-            System.out.println("❌ 예약 정보 못찾음 (TimeoutException).");
-        } catch (Exception e) {
-            System.err.println("❌ parseCalendar 오류: " + e.getMessage());
         }
     }
 
@@ -186,7 +260,7 @@ public class DanpyeonseonCrawling {
                     .append("date", date)
                     .append("expireAt", new Date(expireTime))
                     .append("id", tm.id));
-            reservationCollection.updateOne(filter, update, new UpdateOptions().upsert(true));
+            reservationSink.upsert(filter, update);
         } catch(Exception e) {
             System.err.println("DB 저장 에러: " + e.getMessage());
         }
@@ -226,29 +300,10 @@ public class DanpyeonseonCrawling {
     }
 
     public static void main(String[] args) {
-        // Chromedriver 경로 설정 (Docker에서 chromedriver가 /usr/local/bin에 있음)
-        System.setProperty("webdriver.chrome.driver", "/usr/local/bin/chromedriver");
+        DanpyeonseonCrawling crawler = new DanpyeonseonCrawling();
 
-        // Chrome 옵션 설정
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments("--headless");
-        options.addArguments("--no-sandbox");
-        options.addArguments("--disable-dev-shm-usage");
-        options.addArguments("--disable-gpu");
-        options.addArguments("--remote-allow-origins=*");
-        options.addArguments("--disable-background-networking"); // 추가
-        options.addArguments("--user-data-dir=/dev/shm/chrome-user-data");
+        String todayDate = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
 
-        WebDriver driver = new ChromeDriver(options);
-
-        try {
-            DanpyeonseonCrawling crawler = new DanpyeonseonCrawling(driver);
-
-            String todayDate = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-
-            crawler.crawlAllDates(todayDate);
-        } finally {
-            driver.quit();
-        }
+        crawler.crawlAllDates(todayDate);
     }
 }
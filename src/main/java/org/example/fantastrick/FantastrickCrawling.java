@@ -1,15 +1,12 @@
 package org.example.fantastrick;
 
-import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.model.UpdateOptions;
 import okhttp3.FormBody;
-import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import org.bson.Document;
-import org.example.config.MongoConfig;
+import org.example.common.FanOut;
+import org.example.config.HttpConfig;
+import org.example.storage.ReservationSink;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -19,11 +16,14 @@ import java.util.*;
 
 public class FantastrickCrawling {
 
-    private final MongoCollection<Document> reservationCollection;
+    private final ReservationSink reservationSink;
 
     private static final String BRAND = "판타스트릭";
     private static final String LOCATION = "강남";
     private static final String BRANCH = "강남점";
+    private static final String AJAX_URL = "http://fantastrick.co.kr/wp-admin/admin-ajax.php";
+    // 작은 워드프레스 서버라 동시에 보내는 요청 수는 낮게 유지
+    private static final int MAX_CONCURRENT_REQUESTS = 2;
 
     private final Map<String, Map<String, Map<String, List<String>>>> finalMap;
 
@@ -47,9 +47,7 @@ public class FantastrickCrawling {
     }
 
     public FantastrickCrawling() {
-        MongoClient mongoClient = MongoConfig.getMongoClient();
-        MongoDatabase database = mongoClient.getDatabase("scrd");
-        this.reservationCollection = database.getCollection("reservation");
+        this.reservationSink = ReservationSink.shared();
 
         // 최종 결과를 담는 구조
         this.finalMap = new LinkedHashMap<>();
@@ -67,66 +65,161 @@ public class FantastrickCrawling {
         return time; // 변환 실패 시 원본 유지
     }
 
+    /**
+     * (테마, 월) 요청 단위 - month: "2025-03-01"
+     */
+    private static class MonthUnit {
+        ThemeInfo info;
+        String month;
+        MonthUnit(ThemeInfo info, String month) {
+            this.info = info;
+            this.month = month;
+        }
+    }
+
+    /**
+     * (테마, 날짜) 요청 단위
+     */
+    private static class DateUnit {
+        ThemeInfo info;
+        String dateAjax;
+        String dateStore;
+        DateUnit(ThemeInfo info, String dateAjax, String dateStore) {
+            this.info = info;
+            this.dateAjax = dateAjax;
+            this.dateStore = dateStore;
+        }
+    }
+
     public void crawlAllDates() {
 
         Calendar cal = Calendar.getInstance();
         SimpleDateFormat dateAjaxFmt = new SimpleDateFormat("yyyy-MM-d");
         SimpleDateFormat dateStoreFmt = new SimpleDateFormat("yyyy-MM-dd");
+        SimpleDateFormat monthFmt = new SimpleDateFormat("yyyy-MM-01");
 
+        // 7일치 날짜 (요청용 / 저장용)
+        List<String> ajaxDates = new ArrayList<>();
+        List<String> storeDates = new ArrayList<>();
+        Set<String> months = new LinkedHashSet<>();
         for (int i = 0; i < 7; i++) {
-            // 날짜 문자열
-            String dateStrAjax = dateAjaxFmt.format(cal.getTime());
-            String dateStrStore = dateStoreFmt.format(cal.getTime());
+            ajaxDates.add(dateAjaxFmt.format(cal.getTime()));
+            storeDates.add(dateStoreFmt.format(cal.getTime()));
+            months.add(monthFmt.format(cal.getTime()));
+            cal.add(Calendar.DAY_OF_MONTH, 1);
+        }
+
+        // 첫 요청 전에 커넥션을 미리 열어 둔다
+        HttpConfig.prewarm(AJAX_URL);
+
+        // 1) 월 달력(booked_calendar_month)으로 지난 날짜/예약 마감 날짜를 먼저 걸러낸다
+        List<MonthUnit> monthUnits = new ArrayList<>();
+        for (ThemeInfo info : THEME_INFO_MAP.values()) {
+            for (String month : months) {
+                monthUnits.add(new MonthUnit(info, month));
+            }
+        }
+        List<Set<String>> closedResults = FanOut.mapOrdered(monthUnits, MAX_CONCURRENT_REQUESTS,
+                unit -> requestClosedDates(unit.info.calendarId, unit.month));
+
+        // key: calendarId, value: 조회할 필요 없는 날짜 (yyyy-MM-dd)
+        Map<String, Set<String>> closedDates = new HashMap<>();
+        for (int i = 0; i < monthUnits.size(); i++) {
+            // 월 달력 요청 실패 시 해당 월은 날짜별 요청으로 처리 (걸러내지 않음)
+            if (closedResults.get(i) == null) continue;
+            closedDates.computeIfAbsent(monthUnits.get(i).info.calendarId, k -> new HashSet<>())
+                    .addAll(closedResults.get(i));
+        }
+
+        // 2) 남은 (테마, 날짜)만 booked_calendar_date 로 동시에 요청
+        List<DateUnit> dateUnits = new ArrayList<>();
+        for (int d = 0; d < storeDates.size(); d++) {
+            for (ThemeInfo info : THEME_INFO_MAP.values()) {
+                if (closedDates.getOrDefault(info.calendarId, Collections.emptySet()).contains(storeDates.get(d))) continue;
+                dateUnits.add(new DateUnit(info, ajaxDates.get(d), storeDates.get(d)));
+            }
+        }
+        List<List<String>> timeResults = FanOut.mapOrdered(dateUnits, MAX_CONCURRENT_REQUESTS, unit -> {
+            String html = requestDateHtml(unit.info.calendarId, unit.dateAjax);
+            return (html != null) ? parseAvailableTimes(html) : null;
+        });
+
+        // key: "calendarId|yyyy-MM-dd"
+        Map<String, List<String>> timesByKey = new HashMap<>();
+        for (int i = 0; i < dateUnits.size(); i++) {
+            DateUnit unit = dateUnits.get(i);
+            if (timeResults.get(i) == null) {
+                System.out.println("   - HTML 응답이 null. 요청 실패 -> 없음 처리 (" + unit.info.title + ", " + unit.dateStore + ")");
+            }
+            timesByKey.put(unit.info.calendarId + "|" + unit.dateStore, timeResults.get(i));
+        }
+
+        // 3) 날짜 → 테마 순서로 저장 (마감된 날짜는 빈 목록)
+        for (String dateStrStore : storeDates) {
             Map<String, Map<String, List<String>>> branchThemeMap = new LinkedHashMap<>();
             branchThemeMap.put(BRANCH, new LinkedHashMap<>());
 
-            for (Map.Entry<String, ThemeInfo> entry : THEME_INFO_MAP.entrySet()) {
-                String themeKey = entry.getKey();
-                ThemeInfo info = entry.getValue();
-
-                String html = requestDateHtml(info.calendarId, dateStrAjax);
-                if (html == null) {
-                    System.out.println("   - HTML 응답이 null. 요청 실패 -> 없음 처리");
-                    branchThemeMap.get(BRANCH).put(info.title, Collections.emptyList());
-                    saveToDB(info, dateStrStore, Collections.emptyList());
-                } else {
-                    List<String> availableTimes = parseAvailableTimes(html);
-                    if (availableTimes.isEmpty()) {
-                        branchThemeMap.get(BRANCH).put(info.title, Collections.emptyList());
-                        saveToDB(info, dateStrStore, Collections.emptyList());
-                    } else {
-                        branchThemeMap.get(BRANCH).put(info.title, availableTimes);
-                        saveToDB(info, dateStrStore, availableTimes);
-                    }
+            for (ThemeInfo info : THEME_INFO_MAP.values()) {
+                List<String> availableTimes = timesByKey.get(info.calendarId + "|" + dateStrStore);
+                if (availableTimes == null) {
+                    availableTimes = Collections.emptyList();
                 }
+                branchThemeMap.get(BRANCH).put(info.title, availableTimes);
+                saveToDB(info, dateStrStore, availableTimes);
             }
 
             finalMap.putIfAbsent(dateStrStore, new LinkedHashMap<>());
             finalMap.get(dateStrStore).putAll(branchThemeMap);
-
-            cal.add(Calendar.DAY_OF_MONTH, 1);
         }
 
         printFinalResults();
     }
 
     private String requestDateHtml(String calendarId, String dateStr) {
-        try {
-            OkHttpClient client = new OkHttpClient();
-            FormBody formBody = new FormBody.Builder()
-                    .add("action", "booked_calendar_date")
-                    .add("date", dateStr)       // ex "2025-03-2"
-                    .add("calendar_id", calendarId)
-                    .build();
+        FormBody formBody = new FormBody.Builder()
+                .add("action", "booked_calendar_date")
+                .add("date", dateStr)       // ex "2025-03-2"
+                .add("calendar_id", calendarId)
+                .build();
+        return postAjax(formBody);
+    }
 
+    /**
+     * 월 달력에서 더 조회할 필요가 없는 날짜(지난 날짜, 전체 예약 마감)를 구한다. 실패 시 null.
+     * - td[data-date] 중 prev-date(지난 날짜), booked(예약 마감) 클래스
+     */
+    private Set<String> requestClosedDates(String calendarId, String month) {
+        FormBody formBody = new FormBody.Builder()
+                .add("action", "booked_calendar_month")
+                .add("gotoMonth", month)    // ex "2025-03-01"
+                .add("calendar_id", calendarId)
+                .build();
+        String html = postAjax(formBody);
+        if (html == null) return null;
+
+        Elements days = Jsoup.parse(html).select("td[data-date]");
+        // 달력이 아닌 응답이면 걸러내지 않고 날짜별 요청으로 처리
+        if (days.isEmpty()) return null;
+
+        Set<String> closed = new HashSet<>();
+        for (Element day : days) {
+            if (day.hasClass("prev-date") || day.hasClass("booked")) {
+                closed.add(day.attr("data-date"));
+            }
+        }
+        return closed;
+    }
+
+    private String postAjax(FormBody formBody) {
+        try {
             Request request = new Request.Builder()
-                    .url("http://fantastrick.co.kr/wp-admin/admin-ajax.php")
+                    .url(AJAX_URL)
                     .post(formBody)
                     .header("Content-Type", "application/x-www-form-urlencoded; charset=UTF-8")
                     .header("X-Requested-With", "XMLHttpRequest")
                     .build();
 
-            try (Response response = client.newCall(request).execute()) {
+            try (Response response = HttpConfig.getHttpClient().newCall(request).execute()) {
                 if (!response.isSuccessful()) {
                     System.err.println("   - 요청 실패: " + response);
                     return null;
@@ -134,7 +227,7 @@ public class FantastrickCrawling {
                 return response.body().string();
             }
         } catch (Exception e) {
-            System.err.println("   - requestDateHtml() 오류: " + e.getMessage());
+            System.err.println("   - postAjax() 오류: " + e.getMessage());
             return null;
         }
     }
@@ -194,7 +287,7 @@ public class FantastrickCrawling {
                     .append("expireAt", new Date(System.currentTimeMillis() + 24L * 60L * 60L * 1000));
 
             Document update = new Document("$set", docToSave);
-            reservationCollection.updateOne(filter, update, new UpdateOptions().upsert(true));
+            reservationSink.upsert(filter, update);
 
             // System.out.println("   >> DB 저장 완료: " + date + " / " + info.title + " / times=" + availableTimes);
         } catch (Exception e) {
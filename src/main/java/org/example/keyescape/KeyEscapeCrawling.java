@@ -1,14 +1,19 @@
 package org.example.keyescape;
 
-import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.model.UpdateOptions;
+import okhttp3.FormBody;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
 import org.bson.Document;
-import org.example.config.MongoConfig;
+import org.example.browser.TabScheduler;
+import org.example.browser.Waits;
+import org.example.browser.WebDriverPool;
+import org.example.common.FallbackStats;
+import org.example.common.FanOut;
+import org.example.config.HttpConfig;
+import org.example.storage.ReservationSink;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
 import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.WebDriver;
@@ -19,7 +24,11 @@ import java.time.Duration;
 import java.util.*;
 
 public class KeyEscapeCrawling {
-    private final MongoCollection<Document> reservationCollection;
+    private static final String BASE_URL = "https://www.keyescape.com";
+    // 예약 페이지에서 날짜(td.selDate)를 누르면 호출되는 시간표 요청
+    private static final String TIME_LIST_URL = BASE_URL + "/controller/run_proc.php";
+
+    private final ReservationSink reservationSink;
 
     private static class ThemeMapping {
         int id;
@@ -93,9 +102,7 @@ public class KeyEscapeCrawling {
 
 
     public KeyEscapeCrawling() {
-        MongoClient mongoClient = MongoConfig.getMongoClient();
-        MongoDatabase database = mongoClient.getDatabase("scrd");
-        this.reservationCollection = database.getCollection("reservation");
+        this.reservationSink = ReservationSink.shared();
     }
 
     private void saveToDatabase(ThemeMapping mapping, String date, List<String> availableTimes, boolean isFirstDate) {
@@ -111,7 +118,7 @@ public class KeyEscapeCrawling {
                     .append("updatedAt", new Date())
                     .append("expireAt", new Date(System.currentTimeMillis() + 24L * 60 * 60 * 1000));
 
-            reservationCollection.updateOne(filter, new Document("$set", docToSave), new UpdateOptions().upsert(true));
+            reservationSink.upsert(filter, new Document("$set", docToSave));
 
             if (isFirstDate) {
                 System.out.println("\n📍 " + mapping.branch + " (" + date + ")");
@@ -122,102 +129,323 @@ public class KeyEscapeCrawling {
         }
     }
 
+    // 시간표 응답은 왔지만 시간 목록(.timeList)이 없는 날짜 (예약 불가 날짜, 안내 문구 등)
+    // fetchAvailableTimes() 가 이 리스트 자체를 돌려주므로 == 로 비교한다. (요청 실패는 null)
+    private static final List<String> UNAVAILABLE_DATE = Collections.unmodifiableList(new ArrayList<>());
+
+    /**
+     * (테마, 날짜) 요청 단위
+     */
+    private static class FetchUnit {
+        ThemeMapping mapping;
+        String date;
+        FetchUnit(ThemeMapping mapping, String date) {
+            this.mapping = mapping;
+            this.date = date;
+        }
+    }
+
+    /**
+     * 날짜 클릭 시 호출되는 시간표 요청을 직접 보내 파싱한다. (크롬, 알림창 대기 없음)
+     * - 테마 × 날짜 요청을 동시에 보냄 (호스트당 동시 요청 수 제한)
+     * - 결과는 지점 → 테마 → 날짜 순서로 저장
+     * - 요청이 실패한(응답 없음/2xx 아님) 테마/날짜만 크롬으로 다시 시도, 모두 실패하면 전체를 크롬 방식으로
+     */
     public void crawlReservations(int days) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        List<String> dates = new ArrayList<>();
+        for (int i = 0; i < days; i++) {
+            Calendar targetCalendar = Calendar.getInstance();
+            targetCalendar.add(Calendar.DATE, i);
+            dates.add(dateFormat.format(targetCalendar.getTime()));
+        }
 
-        ChromeOptions options = new ChromeOptions();
-        options.setBinary("/opt/chrome/chrome");
-        options.addArguments("--headless");
-        options.addArguments("--no-sandbox");
-        options.addArguments("--disable-dev-shm-usage");
-        options.addArguments("--disable-gpu");
-        options.addArguments("--remote-allow-origins=*");
-        options.addArguments("--disable-background-networking");
-        options.addArguments("--user-data-dir=/dev/shm/chrome-user-data");
-
-        WebDriver driver = new ChromeDriver(options);
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+        // 첫 요청 전에 커넥션을 미리 열어 둔다
+        HttpConfig.prewarm(BASE_URL);
 
-        try {
-            for (ThemeMapping mapping : THEME_MAPPINGS) {
+        List<FetchUnit> units = new ArrayList<>();
+        for (ThemeMapping mapping : THEME_MAPPINGS) {
+            for (String date : dates) {
+                units.add(new FetchUnit(mapping, date));
+            }
+        }
 
-                // [1] URL 이동 시도 (Alert 중첩 방지용 try-catch)
-                try {
-                    driver.get(mapping.url);
-                } catch (UnhandledAlertException e) {
-                    try {
-                        Alert alert = driver.switchTo().alert();
-                        System.out.println("❗ (get 중) 알림창 감지됨: " + alert.getText());
-                        alert.dismiss(); // 또는 alert.accept();
-                    } catch (NoAlertPresentException ignored) {
-                    }
-                }
+        List<List<String>> results = FanOut.mapOrdered(units, HttpConfig.maxRequestsPerHost(), this::fetchAvailableTimes);
+
+        // 요청이 모두 실패했으면 전체를 크롬 방식으로 (탭 병렬 사용)
+        if (!units.isEmpty() && results.stream().allMatch(Objects::isNull)) {
+            System.err.println("⚠ [키이스케이프] HTTP 요청이 모두 실패하여 크롬으로 다시 시도합니다.");
+            FallbackStats.record("keyescape", units.size(), units.size());
+            crawlReservationsWithBrowser(days);
+            return;
+        }
+
+        // 요청이 실패한 날짜는 테마별로 모아 두었다가 크롬으로 다시 시도 (정의 순서 유지)
+        Map<ThemeMapping, List<String>> failedDates = new LinkedHashMap<>();
+        int failedUnits = 0;
+        for (int i = 0; i < units.size(); i++) {
+            FetchUnit unit = units.get(i);
+            List<String> times = results.get(i);
+            if (times == null) {
+                failedDates.computeIfAbsent(unit.mapping, k -> new ArrayList<>()).add(unit.date);
+                failedUnits++;
+                continue;
+            }
+            if (times == UNAVAILABLE_DATE) {
+                System.out.println("❌ 날짜 " + unit.date + " 선택 불가 또는 예약 시간 없음. (" + unit.mapping.title + ")");
+                continue;
+            }
+            saveToDatabase(unit.mapping, unit.date, times, true);
+        }
+        FallbackStats.record("keyescape", units.size(), failedUnits);
+
+        if (!failedDates.isEmpty()) {
+            System.err.println("⚠ [키이스케이프] HTTP 요청 " + failedUnits + "/" + units.size() + "건 실패, 테마 " + failedDates.size() + "개를 크롬으로 다시 시도합니다.");
+            crawlThemeDatesWithBrowser(failedDates);
+        }
+    }
 
-                // [2] get() 이후 알림창 감지
+    /**
+     * 테마/날짜의 시간표 HTML 조각을 받아 예약 가능한 시간을 추출한다.
+     * - 요청 실패(응답 없음/2xx 아님)는 null, 시간표가 없는 응답은 UNAVAILABLE_DATE
+     */
+    private List<String> fetchAvailableTimes(FetchUnit unit) {
+        HttpUrl pageUrl = HttpUrl.get(unit.mapping.url);
+        FormBody formBody = new FormBody.Builder()
+                .add("t", "get_theme_time")
+                .add("date", unit.date)
+                .add("zizumNum", pageUrl.queryParameter("zizum_num"))
+                .add("themeNum", pageUrl.queryParameter("theme_num"))
+                .add("endDay", "0")
+                .build();
+        Request request = new Request.Builder()
+                .url(TIME_LIST_URL)
+                .post(formBody)
+                .header("X-Requested-With", "XMLHttpRequest")
+                .header("Referer", unit.mapping.url)
+                .build();
+
+        String html = HttpConfig.fetchString(request);
+        if (html == null) return null;
+
+        org.jsoup.nodes.Document doc = Jsoup.parse(html, BASE_URL);
+        // 시간표가 없는 응답 (예약 불가 날짜, 오류 안내 등)
+        if (doc.selectFirst(".timeList") == null) return UNAVAILABLE_DATE;
+
+        List<String> availableTimes = new ArrayList<>();
+        for (Element timeElement : doc.select(".timeList li label input:not([disabled]) + span")) {
+            availableTimes.add(timeElement.text().trim().replaceAll("\\s*\\(할인\\)", ""));
+        }
+        return availableTimes;
+    }
+
+    /**
+     * 크롬으로 테마 페이지를 열고 날짜를 하나씩 클릭하는 기존 방식
+     * - BROWSER_TABS 가 2 이상이면 탭 여러 개에 테마를 나눠서 동시에 로딩
+     * - 도중에 크롬이 죽으면 새 세션에서 남은 테마(탭 방식) / 실패한 날짜(순차 방식)부터 이어서 진행
+     */
+    public void crawlReservationsWithBrowser(int days) {
+
+        WebDriverPool.Lease lease = WebDriverPool.shared().lease();
+
+        try {
+            List<ThemeMapping> remaining = new ArrayList<>(THEME_MAPPINGS);
+            int tabs = TabScheduler.configuredTabs();
+            if (tabs > 1) {
+                // 끝낸 테마를 기록해 두고, 크롬이 죽어 재시작하면 남은 테마만 다시 탭에 배분
+                Set<ThemeMapping> done = new HashSet<>();
                 try {
-                    WebDriverWait alertWait = new WebDriverWait(driver, Duration.ofSeconds(2));
-                    alertWait.until(ExpectedConditions.alertIsPresent());
-                    Alert alert = driver.switchTo().alert();
-                    System.out.println("❗ 알림창 감지됨: " + alert.getText());
-                    alert.dismiss();  // 또는 alert.accept();
-                } catch (NoAlertPresentException | TimeoutException ignore) {
-                    // 알림창 없으면 무시
+                    lease.run("탭 " + tabs + "개", driver -> {
+                        List<ThemeMapping> units = new ArrayList<>(remaining);
+                        units.removeAll(done);
+                        new TabScheduler(driver, tabs, Duration.ofSeconds(30)).run(
+                                units,
+                                mapping -> mapping.url,
+                                mapping -> ".datepicker-ui",
+                                (tab, mapping) -> {
+                                    crawlThemeDates(tab, mapping, days);
+                                    done.add(mapping);
+                                });
+                    });
+                } catch (Exception e) {
+                    System.err.println("❌ 탭 병렬 크롤링 오류: " + e.getMessage());
                 }
+                // 로딩 시간 초과 등으로 실패한 테마만 아래 순차 방식으로 다시 시도
+                remaining.removeAll(done);
+            }
+
+            for (ThemeMapping mapping : remaining) {
 
-                Calendar calendar = Calendar.getInstance();
-                int currentCalendarMonth = calendar.get(Calendar.MONTH);
+                lease.run(mapping.title + " 페이지", driver -> openThemePage(driver, mapping.url));
+
+                // 현재 달력에 표시된 월 (세션이 바뀌어 페이지를 다시 열면 이번 달로 돌아감)
+                int[] currentCalendarMonth = { Calendar.getInstance().get(Calendar.MONTH) };
 
                 for (int i = 0; i < days; i++) {
                     Calendar targetCalendar = Calendar.getInstance();
                     targetCalendar.add(Calendar.DATE, i);
-                    SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-                    String targetDate = dateFormat.format(targetCalendar.getTime());
-                    int targetMonth = targetCalendar.get(Calendar.MONTH);
-
-                    if (targetMonth != currentCalendarMonth) {
-                        try {
-                            WebElement nextMonthButton = wait.until(ExpectedConditions.elementToBeClickable(By.cssSelector("button.next-month.change-month")));
-                            nextMonthButton.click();
-                            currentCalendarMonth = targetMonth;
-                            Thread.sleep(1000);
-                        } catch (Exception e) {
-                            System.err.println("❌ 달력 넘기기 실패: " + e.getMessage());
-                        }
+                    lease.run(mapping.title + " " + format(targetCalendar),
+                            driver -> crawlThemeDate(driver, mapping, targetCalendar, currentCalendarMonth));
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            lease.close();
+        }
+
+    }
+
+    /**
+     * HTTP 요청이 실패한 테마/날짜만 크롬으로 처리한다. (테마 페이지를 한 번 열고 날짜를 차례로 클릭)
+     * - 도중에 크롬이 죽으면 새 세션에서 실패한 날짜부터 이어서 진행
+     */
+    private void crawlThemeDatesWithBrowser(Map<ThemeMapping, List<String>> datesByTheme) {
+        WebDriverPool.Lease lease = WebDriverPool.shared().lease();
+
+        try {
+            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+            for (Map.Entry<ThemeMapping, List<String>> entry : datesByTheme.entrySet()) {
+                ThemeMapping mapping = entry.getKey();
+                try {
+                    lease.run(mapping.title + " 페이지", driver -> openThemePage(driver, mapping.url));
+
+                    int[] currentCalendarMonth = { Calendar.getInstance().get(Calendar.MONTH) };
+                    for (String date : entry.getValue()) {
+                        Calendar targetCalendar = Calendar.getInstance();
+                        targetCalendar.setTime(dateFormat.parse(date));
+                        lease.run(mapping.title + " " + date,
+                                driver -> crawlThemeDate(driver, mapping, targetCalendar, currentCalendarMonth));
                     }
+                } catch (Exception e) {
+                    System.err.println("❌ " + mapping.title + " 크롬 크롤링 오류: " + e.getMessage());
+                }
+            }
+        } finally {
+            lease.close();
+        }
+    }
+
+    /**
+     * 이미 열려 있는 테마 페이지에서 오늘부터 days 일을 차례로 처리 (탭 방식)
+     */
+    private void crawlThemeDates(WebDriver driver, ThemeMapping mapping, int days) {
+        int[] currentCalendarMonth = { Calendar.getInstance().get(Calendar.MONTH) };
+        for (int i = 0; i < days; i++) {
+            Calendar targetCalendar = Calendar.getInstance();
+            targetCalendar.add(Calendar.DATE, i);
+            crawlThemeDate(driver, mapping, targetCalendar, currentCalendarMonth);
+        }
+    }
+
+    private static String format(Calendar calendar) {
+        return new SimpleDateFormat("yyyy-MM-dd").format(calendar.getTime());
+    }
+
+    /**
+     * 테마 페이지 달력에서 날짜 하나를 눌러 예약 가능 시간을 저장한다.
+     * @param currentCalendarMonth 현재 달력에 표시된 월 (달력을 넘기거나 페이지를 다시 열면 갱신)
+     */
+    private void crawlThemeDate(WebDriver driver, ThemeMapping mapping, Calendar targetCalendar, int[] currentCalendarMonth) {
+        String targetDate = format(targetCalendar);
+        int targetMonth = targetCalendar.get(Calendar.MONTH);
 
-                    String dateSelector = "td.selDate.available[data-date='" + targetDate + "']";
-                    boolean isFirstDate = true;
+        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+
+        // 새 세션이면 about:blank 상태이므로 테마 페이지부터 다시 연다
+        if (isCalendarStale(driver)) {
+            openThemePage(driver, mapping.url);
+            currentCalendarMonth[0] = Calendar.getInstance().get(Calendar.MONTH);
+        }
 
-                    try {
-                        wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(dateSelector)));
-                        WebElement dateElement = driver.findElement(By.cssSelector(dateSelector));
-                        dateElement.click();
+        if (targetMonth != currentCalendarMonth[0]) {
+            try {
+                WebElement nextMonthButton = wait.until(ExpectedConditions.elementToBeClickable(By.cssSelector("button.next-month.change-month")));
+                Waits.install(driver);
+                nextMonthButton.click();
+                currentCalendarMonth[0] = targetMonth;
+                // 달력이 다음 달로 다시 그려질 때까지 대기
+                Waits.domQuiet(driver, "키이스케이프 달력 넘기기", 200, Duration.ofSeconds(5));
+            } catch (Exception e) {
+                System.err.println("❌ 달력 넘기기 실패: " + e.getMessage());
+            }
+        }
 
-                        wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(".timepicker-ui")));
-                        List<WebElement> timeElements = driver.findElements(By.cssSelector(".timepicker-ui .timeList li label input:not([disabled]) + span"));
-                        List<String> availableTimes = new ArrayList<>();
+        String dateSelector = "td.selDate.available[data-date='" + targetDate + "']";
 
-                        for (WebElement timeElement : timeElements) {
-                            String timeText = timeElement.getText().trim().replaceAll("\\s*\\(할인\\)", "");
-                            availableTimes.add(timeText);
-                        }
+        try {
+            wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(dateSelector)));
+            WebElement dateElement = driver.findElement(By.cssSelector(dateSelector));
+            dateElement.click();
 
-                        saveToDatabase(mapping, targetDate, availableTimes, isFirstDate);
-                        isFirstDate = false;
+            wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(".timepicker-ui")));
+            List<WebElement> timeElements = driver.findElements(By.cssSelector(".timepicker-ui .timeList li label input:not([disabled]) + span"));
+            List<String> availableTimes = new ArrayList<>();
 
-                        WebElement backButton = wait.until(ExpectedConditions.presenceOfElementLocated(By.id("back_btn")));
-                        backButton.click();
-                        wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(".datepicker-ui")));
-                    } catch (Exception e) {
-                        System.out.println("❌ 날짜 " + targetDate + " 선택 불가 또는 예약 시간 없음.");
-                    }
-                }
+            for (WebElement timeElement : timeElements) {
+                String timeText = timeElement.getText().trim().replaceAll("\\s*\\(할인\\)", "");
+                availableTimes.add(timeText);
             }
+
+            saveToDatabase(mapping, targetDate, availableTimes, true);
+
+            WebElement backButton = wait.until(ExpectedConditions.presenceOfElementLocated(By.id("back_btn")));
+            backButton.click();
+            wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(".datepicker-ui")));
         } catch (Exception e) {
-            e.printStackTrace();
-        } finally {
-            driver.quit();
+            System.out.println("❌ 날짜 " + targetDate + " 선택 불가 또는 예약 시간 없음.");
+
+            // 달력 화면으로 돌아오지 못했으면(시간 선택 화면에 멈춤, 오류 페이지 등) 그때만 다시 불러온다
+            if (isCalendarStale(driver)) {
+                openThemePage(driver, mapping.url);
+                currentCalendarMonth[0] = Calendar.getInstance().get(Calendar.MONTH);
+            }
+        }
+    }
+
+
+    /**
+     * 테마 예약 페이지를 열고 뜨는 알림창을 닫는다.
+     */
+    private void openThemePage(WebDriver driver, String url) {
+        // [1] URL 이동 시도 (Alert 중첩 방지용 try-catch)
+        try {
+            driver.get(url);
+        } catch (UnhandledAlertException e) {
+            try {
+                Alert alert = driver.switchTo().alert();
+                System.out.println("❗ (get 중) 알림창 감지됨: " + alert.getText());
+                alert.dismiss(); // 또는 alert.accept();
+            } catch (NoAlertPresentException ignored) {
+            }
+        }
+
+        // [2] get() 이후 알림창 감지
+        try {
+            WebDriverWait alertWait = new WebDriverWait(driver, Duration.ofSeconds(2));
+            alertWait.until(ExpectedConditions.alertIsPresent());
+            Alert alert = driver.switchTo().alert();
+            System.out.println("❗ 알림창 감지됨: " + alert.getText());
+            alert.dismiss();  // 또는 alert.accept();
+        } catch (NoAlertPresentException | TimeoutException ignore) {
+            // 알림창 없으면 무시
         }
+    }
 
+    /**
+     * 날짜 선택 달력(.datepicker-ui)이 보이지 않으면 페이지 상태가 어긋난 것으로 본다.
+     */
+    private boolean isCalendarStale(WebDriver driver) {
+        try {
+            // 처리되지 않은 알림창이 있으면 닫고 판단
+            driver.switchTo().alert().dismiss();
+        } catch (NoAlertPresentException ignored) {
+        }
+        try {
+            return driver.findElements(By.cssSelector(".datepicker-ui")).stream().noneMatch(WebElement::isDisplayed);
+        } catch (WebDriverException e) {
+            return true;
+        }
     }
 
 
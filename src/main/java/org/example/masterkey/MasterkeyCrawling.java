@@ -1,14 +1,18 @@
 package org.example.masterkey;
 
-import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.model.UpdateOptions;
+import okhttp3.FormBody;
+import okhttp3.Request;
 import org.bson.Document;
-import org.example.config.MongoConfig;
+import org.example.browser.TabScheduler;
+import org.example.browser.Waits;
+import org.example.browser.WebDriverPool;
+import org.example.common.FallbackStats;
+import org.example.common.FanOut;
+import org.example.config.HttpConfig;
+import org.example.storage.ReservationSink;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
 import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
@@ -19,7 +23,14 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 public class MasterkeyCrawling {
-    private final MongoCollection<Document> reservationCollection;
+    private static final String BASE_URL = "https://www.master-key.co.kr";
+    // 예약 페이지에서 날짜를 누르면 호출되는 목록 요청 (date, store=bid, room)
+    private static final String BOOKING_LIST_URL = BASE_URL + "/booking/booking_list_new";
+    // 예약 목록 응답이 맞는지 확인할 때 쓰는 선택자 (둘 다 없으면 HTTP 실패로 보고 크롬으로 다시 시도)
+    private static final String BOOKING_LIST_SELECTOR = "#booking_list";
+    private static final String THEME_TITLE_SELECTOR = ".box2-inner .title";
+
+    private final ReservationSink reservationSink;
 
     private static class ThemeMapping {
         int id;
@@ -81,9 +92,7 @@ public class MasterkeyCrawling {
             .collect(Collectors.toMap(m -> m.title, m -> m.id));
 
     public MasterkeyCrawling() {
-        MongoClient mongoClient = MongoConfig.getMongoClient();
-        MongoDatabase database = mongoClient.getDatabase("scrd");
-        this.reservationCollection = database.getCollection("reservation");
+        this.reservationSink = ReservationSink.shared();
     }
 
     private void saveToDatabase(ThemeMapping mapping, String date, List<String> availableTimes, boolean isFirstDate) {
@@ -103,7 +112,7 @@ public class MasterkeyCrawling {
                     .append("updatedAt", new Date())
                     .append("expireAt", new Date(System.currentTimeMillis() + 24L * 60 * 60 * 1000));
 
-            reservationCollection.updateOne(filter, new Document("$set", docToSave), new UpdateOptions().upsert(true));
+            reservationSink.upsert(filter, new Document("$set", docToSave));
             // ✅ 지점명과 날짜를 한 번만 출력하도록 개선
             if (isFirstDate) {
                 System.out.println("\n📍 " + mapping.branch + " (" + date + ")");
@@ -114,96 +123,261 @@ public class MasterkeyCrawling {
         }
     }
 
+    /**
+     * (지점 bid, 날짜) 요청 단위
+     */
+    private static class FetchUnit {
+        ThemeMapping branchMapping; // 지점 정보 (bid, brand, location, branch)
+        String date;
+        FetchUnit(ThemeMapping branchMapping, String date) {
+            this.branchMapping = branchMapping;
+            this.date = date;
+        }
+    }
+
+    /**
+     * 브라우저 없이 지점(bid) × 날짜별 예약 목록을 한 번씩만 요청해서 파싱한다.
+     * - 같은 bid 를 쓰는 테마들은 한 번의 요청으로 처리
+     * - 모든 지점/날짜 요청을 동시에 보냄 (호스트당 동시 요청 수 제한)
+     * - 요청이 실패한 날짜가 있는 지점만 크롬 방식으로 다시 시도 (실패가 없으면 크롬을 띄우지 않음)
+     */
     public void crawlReservations(String startDate, int days) {
-        // Chromedriver 경로 설정 (Docker에서 chromedriver가 /usr/local/bin에 있음)
-        System.setProperty("webdriver.chrome.driver", "/usr/local/bin/chromedriver");
-
-        // Chrome 옵션 설정
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments("--headless");
-        options.addArguments("--no-sandbox");
-        options.addArguments("--disable-dev-shm-usage");
-        options.addArguments("--disable-gpu");
-        options.addArguments("--remote-allow-origins=*");
-        options.addArguments("--disable-background-networking"); // 추가
-        options.addArguments("--user-data-dir=/dev/shm/chrome-user-data");
-
-        WebDriver driver = new ChromeDriver(options);
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(20));
+        // bid 별 대표 매핑 (지점 정보용, 정의 순서 유지)
+        Map<Integer, ThemeMapping> branchByBid = new LinkedHashMap<>();
+        for (ThemeMapping mapping : THEME_MAPPINGS) {
+            branchByBid.putIfAbsent(mapping.bid, mapping);
+        }
 
+        List<String> dates = new ArrayList<>();
         try {
-            Set<Integer> visitedBids = new HashSet<>();
-            for (ThemeMapping mapping : THEME_MAPPINGS) {
-                if (visitedBids.contains(mapping.bid)) continue;
-                visitedBids.add(mapping.bid);
+            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
+            Calendar cal = Calendar.getInstance();
+            cal.setTime(sdf.parse(startDate));
+            for (int i = 0; i < days; i++) {
+                dates.add(sdf.format(cal.getTime()));
+                cal.add(Calendar.DAY_OF_MONTH, 1);
+            }
+        } catch (Exception e) {
+            System.err.println("❌ 시작 날짜 형식 오류: " + startDate);
+            return;
+        }
+
+        // 첫 요청 전에 커넥션을 미리 열어 둔다
+        HttpConfig.prewarm(BASE_URL);
+
+        // 지점 순 → 날짜 순
+        List<FetchUnit> units = new ArrayList<>();
+        for (ThemeMapping branchMapping : branchByBid.values()) {
+            for (String date : dates) {
+                units.add(new FetchUnit(branchMapping, date));
+            }
+        }
+
+        List<Map<String, List<String>>> results = FanOut.mapOrdered(units, HttpConfig.maxRequestsPerHost(),
+                unit -> fetchBookingList(unit.branchMapping.bid, unit.date));
+
+        // 요청이 실패한 날짜가 있는 지점만 크롬으로 다시 시도 (지점 단위로 날짜를 클릭하므로)
+        Set<ThemeMapping> failedBranches = new LinkedHashSet<>();
+        int failedUnits = 0;
+        for (int i = 0; i < units.size(); i++) {
+            FetchUnit unit = units.get(i);
+            if (results.get(i) == null) {
+                failedBranches.add(unit.branchMapping);
+                failedUnits++;
+                continue;
+            }
+            saveThemeAvailability(unit.branchMapping, unit.date, results.get(i));
+        }
+        FallbackStats.record("masterkey", units.size(), failedUnits);
 
-                String url = "https://www.master-key.co.kr/booking/bk_detail?bid=" + mapping.bid;
-                driver.get(url);
+        if (!failedBranches.isEmpty()) {
+            System.err.println("⚠ [마스터키] HTTP 요청 " + failedUnits + "/" + units.size() + "건 실패, 지점 " + failedBranches.size() + "곳을 크롬으로 다시 시도합니다.");
+            crawlBranchesWithBrowser(new ArrayList<>(failedBranches), days);
+        }
+    }
 
-                wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(".date_click_div1 p")));
-                List<WebElement> dateElements = driver.findElements(By.cssSelector(".date_click_div1 p"));
+    /**
+     * 예약 목록(#booking_list) HTML 조각을 받아 테마별 예약 가능 시간을 추출한다. 실패 시 null.
+     * - 200 이어도 목록 컨테이너나 테마 제목(.box2-inner .title)이 없으면 (차단/로그인 페이지, 마크업 변경) 실패로 본다.
+     */
+    private Map<String, List<String>> fetchBookingList(int bid, String date) {
+        FormBody formBody = new FormBody.Builder()
+                .add("date", date)
+                .add("store", String.valueOf(bid))
+                .add("room", "")
+                .build();
+        Request request = new Request.Builder()
+                .url(BOOKING_LIST_URL)
+                .post(formBody)
+                .header("X-Requested-With", "XMLHttpRequest")
+                .header("Referer", BASE_URL + "/booking/bk_detail?bid=" + bid)
+                .build();
 
-                for (int i = 0; i < Math.min(dateElements.size(), days); i++) {
-                    WebElement dateElement = dateElements.get(i);
-                    String date = dateElement.getAttribute("data-dd");
+        String html = HttpConfig.fetchString(request);
+        if (html == null) return null;
 
-                    ((JavascriptExecutor) driver).executeScript("arguments[0].click();", dateElement);
-                    Thread.sleep(2000);
+        Element doc = Jsoup.parse(html, BASE_URL);
+        if (doc.selectFirst(BOOKING_LIST_SELECTOR) == null && doc.selectFirst(THEME_TITLE_SELECTOR) == null) return null;
 
-                    wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector("#booking_list .box2-inner")));
-                    List<WebElement> rooms = driver.findElements(By.cssSelector("#booking_list .box2-inner"));
+        Map<String, List<String>> themeAvailability = new LinkedHashMap<>();
+        for (Element room : doc.select(".box2-inner")) {
+            Element titleEl = room.selectFirst(".title");
+            if (titleEl == null) continue;
 
-                    Map<String, List<String>> themeAvailability = new LinkedHashMap<>();
-                    for (WebElement room : rooms) {
-                        try {
-                            wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(".title")));
-                            String title = room.findElement(By.cssSelector(".title")).getText().trim();
+            List<String> availableTimes = new ArrayList<>();
+            for (Element timeElement : room.select(".right p.col.true a")) {
+                availableTimes.add(timeElement.text().trim().replace("예약가능", "").trim());
+            }
+            themeAvailability.put(titleEl.text().trim(), availableTimes);
+        }
+        return themeAvailability;
+    }
 
-                            wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(".right")));
-                            List<WebElement> availableTimesElements = room.findElements(By.cssSelector(".right p.col.true a"));
+    private void saveThemeAvailability(ThemeMapping mapping, String date, Map<String, List<String>> themeAvailability) {
+        boolean isFirstDate = true;
+        for (Map.Entry<String, List<String>> entry : themeAvailability.entrySet()) {
+            String themeTitle = entry.getKey();
+            List<String> availableTimes = entry.getValue();
 
-                            List<String> availableTimes = new ArrayList<>();
-                            for (WebElement timeElement : availableTimesElements) {
-                                availableTimes.add(timeElement.getText().trim().replace("예약가능", "").trim());
-                            }
+            // 내가 정의한 title -> id 매핑 적용
+            Integer predefinedId = TITLE_TO_ID_MAP.get(themeTitle);
+            if (predefinedId == null) {
+                System.out.println("⚠ 정의되지 않은 테마: " + themeTitle);
+                continue; // 무시하거나 로그 찍고 패스
+            }
 
-                            themeAvailability.put(title, availableTimes);
-                        } catch (TimeoutException | NoSuchElementException e) {
-                            System.out.println("⚠ 예약 가능한 시간이 없음.");
-                        }
-                    }
+            ThemeMapping fixedMapping = new ThemeMapping(
+                    predefinedId,
+                    mapping.brand,
+                    mapping.location,
+                    mapping.branch,
+                    themeTitle,
+                    mapping.bid
+            );
 
-                    boolean isFirstDate = true;
-                    for (Map.Entry<String, List<String>> entry : themeAvailability.entrySet()) {
-                        String themeTitle = entry.getKey();
-                        List<String> availableTimes = entry.getValue();
-
-                        // ✅ [여기부터] 내가 정의한 title -> id 매핑 적용
-                        Integer predefinedId = TITLE_TO_ID_MAP.get(themeTitle);
-                        if (predefinedId == null) {
-                            System.out.println("⚠ 정의되지 않은 테마: " + themeTitle);
-                            continue; // 무시하거나 로그 찍고 패스
-                        }
-
-                        ThemeMapping fixedMapping = new ThemeMapping(
-                                predefinedId,
-                                mapping.brand,
-                                mapping.location,
-                                mapping.branch,
-                                themeTitle,
-                                mapping.bid
-                        );
-                        // ✅ [여기까지] 내가 정의한 id로 저장되게 처리
-
-                        saveToDatabase(fixedMapping, date, availableTimes, isFirstDate);
-                        isFirstDate = false;
-                    }
+            saveToDatabase(fixedMapping, date, availableTimes, isFirstDate);
+            isFirstDate = false;
+        }
+    }
+
+    /**
+     * 크롬으로 bk_detail 페이지를 열고 날짜를 하나씩 클릭하는 기존 방식 (전체 지점)
+     */
+    public void crawlReservationsWithBrowser(String startDate, int days) {
+        // 지점(bid)마다 대표 매핑 하나
+        Map<Integer, ThemeMapping> branches = new LinkedHashMap<>();
+        for (ThemeMapping mapping : THEME_MAPPINGS) {
+            branches.putIfAbsent(mapping.bid, mapping);
+        }
+        crawlBranchesWithBrowser(new ArrayList<>(branches.values()), days);
+    }
+
+    /**
+     * 주어진 지점들을 크롬으로 처리한다.
+     * - BROWSER_TABS 가 2 이상이면 탭 여러 개에 지점을 나눠서 동시에 로딩
+     * - 지점(bid) 하나를 한 단위로 실행해서, 도중에 크롬이 죽으면 새 세션에서 남은 지점부터 다시 진행
+     */
+    private void crawlBranchesWithBrowser(List<ThemeMapping> branches, int days) {
+        WebDriverPool.Lease lease = WebDriverPool.shared().lease();
+
+        try {
+            List<ThemeMapping> remaining = new ArrayList<>(branches);
+
+            int tabs = TabScheduler.configuredTabs();
+            if (tabs > 1) {
+                Set<ThemeMapping> done = new HashSet<>();
+                try {
+                    lease.run("탭 " + tabs + "개", driver -> {
+                        List<ThemeMapping> units = new ArrayList<>(remaining);
+                        units.removeAll(done);
+                        new TabScheduler(driver, tabs, Duration.ofSeconds(30)).run(
+                                units,
+                                mapping -> branchUrl(mapping.bid),
+                                mapping -> ".date_click_div1 p",
+                                (tab, mapping) -> {
+                                    crawlBranchDates(tab, mapping, days);
+                                    done.add(mapping);
+                                });
+                    });
+                } catch (Exception e) {
+                    System.err.println("❌ 탭 병렬 크롤링 오류: " + e.getMessage());
+                }
+                // 실패한 지점만 아래 순차 방식으로 다시 시도
+                remaining.removeAll(done);
+            }
+
+            for (ThemeMapping mapping : remaining) {
+                try {
+                    lease.run("bid=" + mapping.bid, driver -> crawlBranchWithBrowser(driver, mapping, days));
+                } catch (Exception e) {
+                    System.err.println("❌ bid=" + mapping.bid + " 크롤링 오류: " + e.getMessage());
                 }
             }
-        } catch (Exception e) {
-            e.printStackTrace();
         } finally {
-            driver.quit();
+            lease.close();
+        }
+    }
+
+    private static String branchUrl(int bid) {
+        return "https://www.master-key.co.kr/booking/bk_detail?bid=" + bid;
+    }
+
+    private void crawlBranchWithBrowser(WebDriver driver, ThemeMapping mapping, int days) {
+        driver.get(branchUrl(mapping.bid));
+        crawlBranchDates(driver, mapping, days);
+    }
+
+    /**
+     * 이미 열려 있는 bk_detail 페이지에서 날짜를 하나씩 클릭해 지점의 테마별 예약 가능 시간을 저장
+     */
+    private void crawlBranchDates(WebDriver driver, ThemeMapping mapping, int days) {
+        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(20));
+
+        wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(".date_click_div1 p")));
+        List<WebElement> dateElements = driver.findElements(By.cssSelector(".date_click_div1 p"));
+
+        for (int i = 0; i < Math.min(dateElements.size(), days); i++) {
+            WebElement dateElement = dateElements.get(i);
+            String date = dateElement.getAttribute("data-dd");
+
+            // 이전 날짜의 목록이 교체될 때까지 기다리기 위해 클릭 전 목록을 잡아 둔다
+            List<WebElement> previous = driver.findElements(By.cssSelector("#booking_list .box2-inner"));
+            Waits.install(driver);
+            ((JavascriptExecutor) driver).executeScript("arguments[0].click();", dateElement);
+
+            if (!previous.isEmpty()) {
+                try {
+                    Waits.until(driver, "마스터키 목록 교체", Duration.ofSeconds(10), ExpectedConditions.stalenessOf(previous.get(0)));
+                } catch (TimeoutException e) {
+                    // 같은 목록을 다시 그리지 않는 경우 → DOM 변경이 멈출 때까지만 대기
+                    Waits.domQuiet(driver, "마스터키 목록 안정화", 300, Duration.ofSeconds(5));
+                }
+            }
+            Waits.until(driver, "마스터키 목록 표시", Duration.ofSeconds(20),
+                    ExpectedConditions.presenceOfElementLocated(By.cssSelector("#booking_list .box2-inner")));
+            List<WebElement> rooms = driver.findElements(By.cssSelector("#booking_list .box2-inner"));
+
+            Map<String, List<String>> themeAvailability = new LinkedHashMap<>();
+            for (WebElement room : rooms) {
+                try {
+                    wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(".title")));
+                    String title = room.findElement(By.cssSelector(".title")).getText().trim();
+
+                    wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(".right")));
+                    List<WebElement> availableTimesElements = room.findElements(By.cssSelector(".right p.col.true a"));
+
+                    List<String> availableTimes = new ArrayList<>();
+                    for (WebElement timeElement : availableTimesElements) {
+                        availableTimes.add(timeElement.getText().trim().replace("예약가능", "").trim());
+                    }
+
+                    themeAvailability.put(title, availableTimes);
+                } catch (TimeoutException | NoSuchElementException e) {
+                    System.out.println("⚠ 예약 가능한 시간이 없음.");
+                }
+            }
+
+            saveThemeAvailability(mapping, date, themeAvailability);
         }
     }
 
@@ -0,0 +1,178 @@
+package org.example.naver;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import org.bson.Document;
+import org.example.common.FanOut;
+import org.example.config.HttpConfig;
+import org.example.storage.ReservationSink;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * 네이버 예약(m.booking.naver.com) 공용 크롤러
+ * - 예약 페이지(SPA)가 내부적으로 호출하는 GraphQL schedule API를 직접 호출
+ * - 상품(테마)마다 조회 기간 전체를 한 번에 요청하고, 상품들은 동시에 요청
+ * - 결과는 날짜 → 상품 순서대로 출력 및 DB 저장
+ */
+public class NaverBookingCrawler {
+
+    private static final String GRAPHQL_URL = "https://m.booking.naver.com/graphql?opName=schedule";
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private static final String SCHEDULE_QUERY =
+            "query schedule($scheduleParams: ScheduleParams) {"
+                    + " schedule(input: $scheduleParams) {"
+                    + " bizItemSchedule { hourly {"
+                    + " unitStartTime unitStock unitBookingCount isUnitSaleDay isUnitBusinessDay"
+                    + " } } } }";
+
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private final String brandLabel;
+    private final List<NaverBookingItem> items;
+    private final ReservationSink reservationSink;
+
+    /**
+     * @param brandLabel 로그 출력용 이름
+     * @param items      크롤링할 예약 상품 목록 (출력 순서)
+     */
+    public NaverBookingCrawler(String brandLabel, List<NaverBookingItem> items) {
+        this.brandLabel = brandLabel;
+        this.items = items;
+        this.reservationSink = ReservationSink.shared();
+    }
+
+    /**
+     * 오늘부터 days 일간 모든 상품을 크롤링한다.
+     */
+    public void crawl(int days) {
+        LocalDate startDate = LocalDate.now();
+        LocalDate endDate = startDate.plusDays(days - 1);
+
+        // 상품별로 기간 전체를 한 번에 요청 (key: 날짜, value: 예약 가능 시간)
+        List<Map<String, List<String>>> schedules = FanOut.mapOrdered(items, HttpConfig.maxRequestsPerHost(),
+                item -> fetchSchedule(item, startDate, endDate));
+
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            String dateStr = date.toString(); // yyyy-MM-dd
+            System.out.println("\n📍 " + dateStr);
+
+            for (int i = 0; i < items.size(); i++) {
+                NaverBookingItem item = items.get(i);
+                Map<String, List<String>> schedule = schedules.get(i);
+                if (schedule == null) {
+                    System.out.println(" - " + item.title + " : 없음 (조회 실패)");
+                    saveToDatabase(item, dateStr, Collections.emptyList());
+                    continue;
+                }
+
+                List<String> availableTimes = schedule.getOrDefault(dateStr, Collections.emptyList());
+                System.out.println(" - " + item.title + " : " + (availableTimes.isEmpty() ? "없음" : availableTimes));
+                saveToDatabase(item, dateStr, availableTimes);
+            }
+        }
+    }
+
+    /**
+     * 상품 하나의 기간 전체 스케줄을 조회한다. 실패 시 null.
+     */
+    private Map<String, List<String>> fetchSchedule(NaverBookingItem item, LocalDate startDate, LocalDate endDate) {
+        JSONObject params = new JSONObject()
+                .put("businessTypeId", 12)
+                .put("businessId", item.businessId)
+                .put("bizItemId", item.bizItemId)
+                .put("startDateTime", startDate.atStartOfDay().format(DATE_TIME_FORMAT))
+                .put("endDateTime", endDate.atTime(23, 59, 59).format(DATE_TIME_FORMAT))
+                .put("fixedTime", true)
+                .put("includesHolidaySchedules", true);
+
+        JSONObject body = new JSONObject()
+                .put("operationName", "schedule")
+                .put("query", SCHEDULE_QUERY)
+                .put("variables", new JSONObject().put("scheduleParams", params));
+
+        Request request = new Request.Builder()
+                .url(GRAPHQL_URL)
+                .post(RequestBody.create(body.toString(), JSON))
+                .header("Referer", "https://m.booking.naver.com/booking/12/bizes/"
+                        + item.businessId + "/items/" + item.bizItemId)
+                .build();
+
+        String responseBody = HttpConfig.fetchString(request);
+        if (responseBody == null) {
+            return null;
+        }
+
+        try {
+            JSONArray hourly = new JSONObject(responseBody)
+                    .getJSONObject("data")
+                    .getJSONObject("schedule")
+                    .getJSONObject("bizItemSchedule")
+                    .getJSONArray("hourly");
+            return parseHourly(hourly);
+        } catch (Exception e) {
+            System.err.println("❌ [" + brandLabel + "] " + item.title + " 스케줄 파싱 오류: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 시간 단위 슬롯 중 판매일/영업일이고 잔여 재고가 있는 미래 슬롯만 날짜별로 모은다.
+     * (예약 페이지에서 선택 가능한 btn_time 버튼과 같은 기준)
+     */
+    private Map<String, List<String>> parseHourly(JSONArray hourly) {
+        Map<String, List<String>> result = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < hourly.length(); i++) {
+            JSONObject slot = hourly.getJSONObject(i);
+            String unitStartTime = slot.optString("unitStartTime", "");
+            if (unitStartTime.length() < 16) continue;
+
+            if (!slot.optBoolean("isUnitSaleDay", true) || !slot.optBoolean("isUnitBusinessDay", true)) continue;
+            if (slot.optInt("unitStock", 0) - slot.optInt("unitBookingCount", 0) <= 0) continue;
+
+            // "2025-03-10 13:30:00"
+            String date = unitStartTime.substring(0, 10);
+            String time = NaverTimeParser.toHourMinute(unitStartTime);
+            LocalDateTime startAt = LocalDateTime.parse(date + "T" + time);
+            if (startAt.isBefore(now)) continue;
+
+            result.computeIfAbsent(date, k -> new ArrayList<>()).add(time);
+        }
+        for (List<String> times : result.values()) {
+            Collections.sort(times);
+        }
+        return result;
+    }
+
+    private void saveToDatabase(NaverBookingItem item, String date, List<String> availableTimes) {
+        try {
+            // Upsert 키: (brand, title, date)
+            Document filter = new Document("brand", item.brand)
+                    .append("title", item.title)
+                    .append("date", date);
+
+            Document docToSave = new Document("brand", item.brand)
+                    .append("location", item.location)
+                    .append("branch", item.branch)
+                    .append("title", item.title)
+                    .append("id", item.id)
+                    .append("date", date)
+                    .append("availableTimes", availableTimes)
+                    .append("updatedAt", new Date())
+                    .append("expireAt", new Date(System.currentTimeMillis() + 24L * 60 * 60 * 1000));
+
+            reservationSink.upsert(filter, new Document("$set", docToSave));
+        } catch (Exception e) {
+            System.err.println("❌ DB 저장 중 오류: " + e.getMessage());
+        }
+    }
+}
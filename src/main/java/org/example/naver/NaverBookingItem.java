@@ -0,0 +1,27 @@
+package org.example.naver;
+
+/**
+ * 네이버 예약 상품(테마) 한 개
+ * - businessId / bizItemId: m.booking.naver.com/booking/12/bizes/{businessId}/items/{bizItemId}
+ * - 나머지는 DB 저장용 테마 매핑 정보
+ */
+public class NaverBookingItem {
+    final String businessId;
+    final String bizItemId;
+    final int id;
+    final String brand;
+    final String location;
+    final String branch;
+    final String title;
+
+    public NaverBookingItem(String businessId, String bizItemId,
+                            int id, String brand, String location, String branch, String title) {
+        this.businessId = businessId;
+        this.bizItemId = bizItemId;
+        this.id = id;
+        this.brand = brand;
+        this.location = location;
+        this.branch = branch;
+        this.title = title;
+    }
+}
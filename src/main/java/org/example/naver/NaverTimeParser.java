@@ -0,0 +1,57 @@
+package org.example.naver;
+
+/**
+ * 네이버 예약 시간 표기를 "HH:mm" 으로 변환
+ * - API 값: "2025-03-10 13:30:00", "2025-03-10T13:30:00"
+ * - 화면 표기: "오후 1:30", "1:30 PM", "오전 10:00 4매"
+ */
+public class NaverTimeParser {
+
+    public static String toHourMinute(String timeText) {
+        String text = timeText.trim();
+
+        // 날짜가 붙은 API 값이면 시간 부분만 사용
+        if (text.matches("\\d{4}-\\d{2}-\\d{2}[ T].*")) {
+            text = text.substring(11);
+        }
+
+        // "오전", "오후", 혹은 "AM", "PM" 인지 확인
+        boolean isAm = text.contains("오전") || text.toUpperCase().contains("AM");
+        boolean isPm = text.contains("오후") || text.toUpperCase().contains("PM");
+
+        // 먼저 한글/영문 표기, "4매", "1 tickets" 제거
+        String cleaned = text
+                .replace("오전", "")
+                .replace("오후", "")
+                .replaceAll("(?i)AM", "")
+                .replaceAll("(?i)PM", "")
+                .replaceAll("\\s*\\d+매", "")
+                .replaceAll("\\s*\\d+\\s*tickets", "")
+                .trim();
+
+        // 예: "8:30", "13:30:00"
+        String[] parts = cleaned.split(":");
+        if (parts.length < 2) {
+            return cleaned; // 포맷 예외 시 그냥 반환
+        }
+        int hour;
+        int minute;
+        try {
+            hour = Integer.parseInt(parts[0].trim());
+            minute = Integer.parseInt(parts[1].trim());
+        } catch (NumberFormatException e) {
+            return cleaned;
+        }
+
+        // 오전 12시 -> 00시
+        if (isAm && hour == 12) {
+            hour = 0;
+        }
+        // 오후/PM & 시 < 12 -> 시 + 12
+        else if (isPm && hour < 12) {
+            hour += 12;
+        }
+
+        return String.format("%02d:%02d", hour, minute);
+    }
+}
@@ -1,42 +1,27 @@
 package org.example.pointnine;
 
-import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.model.UpdateOptions;
-import org.bson.Document;
-import org.example.config.MongoConfig;
-import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
-
-import java.time.Duration;
-import java.util.*;
+import org.example.revmake.RevMakeCrawler;
+import org.example.revmake.RevMakeSite;
+import org.example.revmake.RevMakeSite.ThemeMapping;
 
+import java.util.*;
 
+/**
+ * 포인트나인 (rev.make 예약 엔진)
+ * - 날짜/지점 선택을 JS로 조작하던 방식 대신 rev_days, s_zizum 파라미터로 바로 요청
+ * - 요청/파싱/저장은 RevMakeCrawler 가 담당
+ */
 public class PointNineCrawling {
 
-    private final WebDriver driver;
-    private final MongoCollection<Document> reservationCollection;
-
-
-    private static class ThemeMapping {
-        int id;
-        String brand;
-        String location;
-        String branch;
-        String title;
-
-        ThemeMapping(int id, String brand, String location, String branch, String title) {
-            this.id = id;
-            this.brand = brand;
-            this.location = location;
-            this.branch = branch;
-            this.title = title;
-        }
-    }
+    private static final String BASE_URL = "https://point-nine.com/layout/res/home.php";
 
+    // 매핑되지 않은 테마는 location "기타", branch 는 지점명으로 저장
+    private static final List<RevMakeSite.Store> STORES = Arrays.asList(
+            new RevMakeSite.Store("1", "기타", "강남점"),
+            new RevMakeSite.Store("4", "기타", "강남2호점"),
+            new RevMakeSite.Store("5", "기타", "건대점"),
+            new RevMakeSite.Store("6", "기타", "홍대점")
+    );
 
     private static final List<ThemeMapping> THEME_MAPPINGS = Arrays.asList(
             // 강남점
@@ -59,197 +44,52 @@ public class PointNineCrawling {
     private static final Map<String, ThemeMapping> THEME_MAP = new HashMap<>();
     static {
         for (ThemeMapping tm : THEME_MAPPINGS) {
-            THEME_MAP.put(tm.title, tm);
+            THEME_MAP.put(tm.getTitle(), tm);
         }
     }
 
-    public PointNineCrawling(WebDriver driver) {
-        this.driver = driver;
-        MongoClient mongoClient = MongoConfig.getMongoClient();
-        MongoDatabase database = mongoClient.getDatabase("scrd");
-        this.reservationCollection = database.getCollection("reservation");
-    }
-
-
-    public void crawlThemesForDate(String date) {
-
-        Map<String, String> zizumList = new LinkedHashMap<>();
-        zizumList.put("1", "강남점");
-        zizumList.put("4", "강남2호점");
-        zizumList.put("5", "건대점");
-        zizumList.put("6", "홍대점");
-
-
-        boolean isFirstStoreOfDay = true;
-
-
-        for (Map.Entry<String, String> entry : zizumList.entrySet()) {
-            String zizumId = entry.getKey();
-            String zizumName = entry.getValue();
-
-            try {
-                driver.get("https://point-nine.com/layout/res/home.php?go=rev.make&s_zizum=1");
-
-                if (isFirstStoreOfDay) {
-                    System.out.println("\n📍 " + date);
-                    isFirstStoreOfDay = false;
-                }
-
-                selectDate(date);
-
-                selectZizum(zizumId);
-
-                Map<String, List<String>> themeTimesMap = fetchAvailableTimesWithTheme();
-
-                for (Map.Entry<String, List<String>> themeEntry : themeTimesMap.entrySet()) {
-                    String rawThemeName = themeEntry.getKey();
-                    String themeName = normalizeThemeName(rawThemeName);
-                    List<String> availableTimes = themeEntry.getValue();
-
-                    if (availableTimes.isEmpty()) {
-                        System.out.println(" - " + themeName + " : 없음");
-                    } else {
-                        System.out.println(" - " + themeName + " : " + availableTimes);
-                    }
-
-
-                    ThemeMapping mapping = THEME_MAP.get(themeName);
-                    String brand = (mapping != null) ? mapping.brand : "포인트나인";
-                    String location = (mapping != null) ? mapping.location : "기타";
-                    String branch = (mapping != null) ? mapping.branch : zizumName;
-                    String title = (mapping != null) ? mapping.title : themeName;
-                    int id = (mapping != null) ? mapping.id : 0;
-
-                    saveToDatabase(brand, location, branch, title, id, date, availableTimes);
-                }
+    private final RevMakeCrawler crawler;
 
-            } catch (TimeoutException e) {
-                System.out.println(" - (지점: " + zizumName + ") : 없음 (페이지 로드 실패)");
-            } catch (Exception e) {
-                System.err.println("Error while crawling " + zizumName + " on " + date + ": " + e.getMessage());
-            }
-        }
+    public PointNineCrawling() {
+        RevMakeSite site = new RevMakeSite("pointnine", "포인트나인", BASE_URL, STORES,
+                RevMakeSite.NOT_END_TIME_SELECTOR, true, PointNineCrawling::findMapping);
+        this.crawler = new RevMakeCrawler(site);
     }
 
 
-    private void selectDate(String date) {
-        JavascriptExecutor js = (JavascriptExecutor) driver;
-        js.executeScript(String.format("document.querySelector('input[name=\"rev_days\"]').value = '%s';", date));
-        js.executeScript("fun_rev_change();");
-
-        new WebDriverWait(driver, Duration.ofSeconds(10))
-                .until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(".theme_box")));
-    }
-
-
-    private void selectZizum(String zizumId) {
-        WebElement zizumSelect = driver.findElement(By.name("s_zizum"));
-        new WebDriverWait(driver, Duration.ofSeconds(5))
-                .until(ExpectedConditions.elementToBeClickable(zizumSelect));
-
-        JavascriptExecutor js = (JavascriptExecutor) driver;
-        js.executeScript(String.format("document.querySelector('select[name=\"s_zizum\"]').value = '%s';", zizumId));
-        js.executeScript("fun_rev_change();");
-
-        new WebDriverWait(driver, Duration.ofSeconds(10))
-                .until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(".theme_box")));
+    /**
+     * 오늘부터 days 일간 모든 지점을 크롤링
+     */
+    public void crawlReservations(int days) {
+        crawler.crawl(days);
     }
 
 
-    private Map<String, List<String>> fetchAvailableTimesWithTheme() {
-        Map<String, List<String>> themeTimesMap = new LinkedHashMap<>();
-        try {
-            List<WebElement> themeBoxes = driver.findElements(By.cssSelector(".theme_box"));
-            for (WebElement themeBox : themeBoxes) {
-                String rawThemeName = themeBox.findElement(By.cssSelector(".h3_theme")).getText().trim();
-                // normalize 함수를 적용하여 괄호 등을 제거
-                String themeName = normalizeThemeName(rawThemeName);
-
-                List<WebElement> availableTimeElements = themeBox.findElements(By.cssSelector(".reserve_Time li a:not(.end) .time"));
-                List<String> availableTimes = new ArrayList<>();
-                for (WebElement timeElement : availableTimeElements) {
-                    String time = timeElement.getText().trim();
-                    availableTimes.add(time);
-                }
-                themeTimesMap.put(themeName, availableTimes);
-            }
-        } catch (Exception e) {
-            System.err.println("Error while fetching theme times: " + e.getMessage());
+    /**
+     * 괄호를 제거한 테마명으로 매핑을 찾고, 없으면 정리된 테마명 그대로 id 0 으로 저장
+     */
+    private static ThemeMapping findMapping(String rawTitle, RevMakeSite.Store store) {
+        String themeName = normalizeThemeName(rawTitle);
+        ThemeMapping mapping = THEME_MAP.get(themeName);
+        if (mapping != null) {
+            return mapping;
         }
-        return themeTimesMap;
+        return new ThemeMapping(0, "포인트나인", store.getLocation(), store.getBranch(), themeName);
     }
 
 
-    private String normalizeThemeName(String rawTheme) {
+    // 괄호 등을 제거
+    private static String normalizeThemeName(String rawTheme) {
         return rawTheme.replaceAll("\\(.*?\\)", "").trim();
     }
 
 
-    private void saveToDatabase(String brand,
-                                String location,
-                                String branch,
-                                String title,
-                                int id,
-                                String date,
-                                List<String> availableTimes) {
-        try {
-            Document filter = new Document("brand", brand)
-                    .append("title", title)
-                    .append("date", date);
-
-            Date expireAt = new Date(System.currentTimeMillis() + 24L * 60L * 60L * 1000);
-
-            Document docToSave = new Document("brand", brand)
-                    .append("location", location)
-                    .append("branch", branch)
-                    .append("title", title)
-                    .append("id", id)
-                    .append("date", date)
-                    .append("availableTimes", availableTimes)
-                    .append("updatedAt", new Date())
-                    .append("expireAt", expireAt);
-
-            reservationCollection.updateOne(filter, new Document("$set", docToSave),
-                    new UpdateOptions().upsert(true));
-
-        } catch (Exception e) {
-            System.err.println("Error saving theme data: " + e.getMessage());
-        }
-    }
-
-
     public static void main(String[] args) {
-
-        // 크롬드라이버 경로 (Docker: /usr/local/bin/chromedriver)
-        System.setProperty("webdriver.chrome.driver", "/usr/local/bin/chromedriver");
-        org.openqa.selenium.chrome.ChromeOptions options = new org.openqa.selenium.chrome.ChromeOptions();
-        options.addArguments("--headless");
-        options.addArguments("--lang=ko"); // 한국어 로케일
-        options.addArguments("--no-sandbox");
-        options.addArguments("--disable-dev-shm-usage");
-        options.addArguments("--disable-gpu");
-        options.addArguments("--remote-allow-origins=*");
-        options.addArguments("--disable-background-networking");
-        options.addArguments("--user-data-dir=/dev/shm/chrome-user-data");
-
-
-        WebDriver driver = null;
         try {
-            driver = new org.openqa.selenium.chrome.ChromeDriver(options);
-            PointNineCrawling crawler = new PointNineCrawling(driver);
-
-            Calendar cal = Calendar.getInstance();
-            for (int i = 0; i < 7; i++) {
-                String date = String.format("%tF", cal); // yyyy-MM-dd
-                crawler.crawlThemesForDate(date);
-                cal.add(Calendar.DATE, 1);
-            }
-
+            PointNineCrawling crawler = new PointNineCrawling();
+            crawler.crawlReservations(7);
         } catch (Exception e) {
             System.err.println("[포인트나인] 크롤링 오류: " + e.getMessage());
-        } finally {
-            if (driver != null) driver.quit();
         }
-
     }
 }
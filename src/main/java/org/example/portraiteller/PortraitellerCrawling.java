@@ -1,26 +1,31 @@
 package org.example.portraiteller;
 
-import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.model.UpdateOptions;
-import okhttp3.OkHttpClient;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.Request;
 import okhttp3.Response;
 import org.bson.Document;
-import org.example.config.MongoConfig;
+import org.example.config.HttpConfig;
+import org.example.storage.ReservationSink;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 public class PortraitellerCrawling {
 
-    private final MongoCollection<Document> reservationCollection;
-    private final OkHttpClient client = new OkHttpClient();
+    private static final String API_BASE_URL = "https://api-prod.whattime.co.kr/api/meeting/reservations/calendars/";
+
+    private final ReservationSink reservationSink;
 
     // 매핑 정보 클래스: 캘린더별로 저장할 필드들을 정의
     private static class ThemeMapping {
@@ -38,16 +43,14 @@ public class PortraitellerCrawling {
         }
     }
     // 캘린더별 매핑 (키: API URL에 사용되는 캘린더 이름)
-    private static final Map<String, ThemeMapping> CALENDAR_MAPPING = new HashMap<>();
+    private static final Map<String, ThemeMapping> CALENDAR_MAPPING = new LinkedHashMap<>();
     static {
         CALENDAR_MAPPING.put("lesportrait", new ThemeMapping(206, "초상화", "강남", "강남점", "Les portrait"));
         CALENDAR_MAPPING.put("hiraeth", new ThemeMapping(207, "초상화", "강남", "강남점", "Hiraeth"));
     }
 
     public PortraitellerCrawling() {
-        MongoClient mongoClient = MongoConfig.getMongoClient();
-        MongoDatabase database = mongoClient.getDatabase("scrd");
-        this.reservationCollection = database.getCollection("reservation");
+        this.reservationSink = ReservationSink.shared();
     }
 
     /**
@@ -69,88 +72,196 @@ public class PortraitellerCrawling {
                     .append("availableTimes", availableTimes)
                     .append("updatedAt", new Date())
                     .append("expireAt", new Date(System.currentTimeMillis() + 24L * 60 * 60 * 1000));
-            reservationCollection.updateOne(filter, new Document("$set", docToSave), new UpdateOptions().upsert(true));
+            reservationSink.upsert(filter, new Document("$set", docToSave));
         } catch (Exception e) {
             System.err.println("DB 저장 오류: " + e.getMessage());
         }
     }
 
     /**
-     * 지정한 캘린더와 날짜를 기반으로 API를 호출하여 예약 데이터를 가져오고, DB에 저장합니다.
+     * 지정한 캘린더의 slots API 요청
+     * - 응답은 요청한 date 부터 여러 날짜가 날짜 키로 묶여서 온다. (예: {"2025-03-01": [...], "2025-03-02": [...], "info": {...}})
      * @param calendar API에 사용할 캘린더 이름 ("lesportrait" 또는 "hiraeth")
-     * @param dateParam 날짜 파라미터 (예: "2025-03-01")
+     * @param dateParam 조회 시작 날짜 (예: "2025-03-01")
      */
-    private void fetchAndStore(String calendar, String dateParam) {
-        try {
-            String encodedTimeZone = URLEncoder.encode("Asia/Seoul", StandardCharsets.UTF_8);
-            String baseUrl = "https://api-prod.whattime.co.kr/api/meeting/reservations/calendars/" + calendar + "/slots";
-            // sync 파라미터 true로 설정
-            String sync = "true";
-            String url = baseUrl + "?slug=portraiteller&date=" + dateParam
-                    + "&sync=" + sync
-                    + "&time_zone=" + encodedTimeZone;
-            Request request = new Request.Builder().url(url).build();
-            try (Response response = client.newCall(request).execute()) {
-                if (response.isSuccessful() && response.body() != null) {
-                    String jsonResponse = response.body().string();
-                    JSONObject jsonObject = new JSONObject(jsonResponse);
-                    ThemeMapping mapping = CALENDAR_MAPPING.get(calendar);
-                    // 날짜별로 API 응답을 처리 (키가 날짜)
-                    for (String key : jsonObject.keySet()) {
-                        if (key.equals("info")) continue;
-                        JSONArray slotsArray = jsonObject.getJSONArray(key);
-                        List<String> availableTimes = new ArrayList<>();
-                        for (int i = 0; i < slotsArray.length(); i++) {
-                            JSONObject slot = slotsArray.getJSONObject(i);
-                            // 시작 시간(start_hour)만 저장
-                            String startHour = slot.getString("start_hour");
-                            availableTimes.add(startHour);
-                        }
-                        // 출력 형식: 헤더와 테마 라인
-                        System.out.println("\n📍 " + key);
-                        if (availableTimes.isEmpty()) {
-                            System.out.println(" - " + mapping.title + " : 없음");
-                        } else {
-                            System.out.println(" - " + mapping.title + " : " + availableTimes);
-                        }
-                        saveToDatabase(mapping.brand, mapping.location, mapping.branch, mapping.title, mapping.id, key, availableTimes);
+    private Request buildSlotsRequest(String calendar, String dateParam) {
+        String encodedTimeZone = URLEncoder.encode("Asia/Seoul", StandardCharsets.UTF_8);
+        // sync 파라미터 true로 설정
+        String url = API_BASE_URL + calendar + "/slots"
+                + "?slug=portraiteller&date=" + dateParam
+                + "&sync=true"
+                + "&time_zone=" + encodedTimeZone;
+        return new Request.Builder().url(url).build();
+    }
+
+    /**
+     * 한 번의 crawlDateRange 에서 진행 중인 비동기 요청들
+     * - 시간 초과 시 cancel() 로 진행 중인 요청을 취소하고, 이어지는 요청/저장을 멈춘다. (주기가 끝난 뒤 저장되지 않도록)
+     */
+    private static class RangeFetch {
+        final CountDownLatch done;
+        final Set<Call> calls = ConcurrentHashMap.newKeySet();
+        volatile boolean cancelled;
+        RangeFetch(int calendars) {
+            this.done = new CountDownLatch(calendars);
+        }
+
+        void cancel() {
+            cancelled = true;
+            for (Call call : calls) {
+                call.cancel();
+            }
+        }
+    }
+
+    /**
+     * 캘린더 하나의 [cursor, end] 구간을 비동기로 조회한다.
+     * - 한 번의 응답에 들어 있는 날짜를 모두 바로 저장하고, 마지막 날짜 다음 날부터 다시 요청
+     * - 구간을 다 채우거나 실패/취소되면 done 을 내린다.
+     */
+    private void fetchRange(String calendar, LocalDate cursor, LocalDate end, RangeFetch fetch) {
+        if (cursor.isAfter(end) || fetch.cancelled) {
+            fetch.done.countDown();
+            return;
+        }
+
+        Call newCall = HttpConfig.getHttpClient().newCall(buildSlotsRequest(calendar, cursor.toString()));
+        fetch.calls.add(newCall);
+        // 등록 직전에 취소됐으면 여기서 취소 (취소된 요청은 onFailure 로 끝난다)
+        if (fetch.cancelled) {
+            newCall.cancel();
+        }
+        newCall.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                fetch.calls.remove(call);
+                if (!fetch.cancelled) {
+                    System.err.println("API 요청 오류 (" + calendar + ", " + cursor + "): " + e.getMessage());
+                }
+                fetch.done.countDown();
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                fetch.calls.remove(call);
+                LocalDate next;
+                try (response) {
+                    if (fetch.cancelled) {
+                        fetch.done.countDown();
+                        return;
                     }
-                } else {
-                    System.err.println("API 요청 실패: " + response);
+                    if (!response.isSuccessful() || response.body() == null) {
+                        System.err.println("API 요청 실패: " + response);
+                        fetch.done.countDown();
+                        return;
+                    }
+                    JSONObject jsonObject = new JSONObject(response.body().string());
+                    LocalDate lastDate = storeDates(calendar, jsonObject, cursor, end, fetch);
+                    // 응답에 날짜가 없으면 하루씩 전진 (무한 반복 방지)
+                    next = (lastDate != null && !lastDate.isBefore(cursor)) ? lastDate.plusDays(1) : cursor.plusDays(1);
+                } catch (Exception e) {
+                    System.err.println("API 응답 처리 오류 (" + calendar + ", " + cursor + "): " + e.getMessage());
+                    fetch.done.countDown();
+                    return;
                 }
+                fetchRange(calendar, next, end, fetch);
             }
-        } catch (Exception e) {
-            e.printStackTrace();
+        });
+    }
+
+    /**
+     * 응답의 날짜 키 중 [from, end] 에 속하는 날짜를 저장하고, 응답에 포함된 마지막 날짜를 반환한다.
+     * - 도중에 취소되면 남은 날짜는 저장하지 않는다.
+     */
+    private LocalDate storeDates(String calendar, JSONObject jsonObject, LocalDate from, LocalDate end, RangeFetch fetch) {
+        ThemeMapping mapping = CALENDAR_MAPPING.get(calendar);
+        LocalDate lastDate = null;
+
+        List<String> keys = new ArrayList<>(jsonObject.keySet());
+        Collections.sort(keys);
+        for (String key : keys) {
+            if (key.equals("info")) continue;
+            LocalDate date;
+            try {
+                date = LocalDate.parse(key);
+            } catch (DateTimeParseException e) {
+                continue;
+            }
+            if (lastDate == null || date.isAfter(lastDate)) {
+                lastDate = date;
+            }
+            if (date.isBefore(from) || date.isAfter(end)) continue;
+            if (fetch.cancelled) break;
+
+            JSONArray slotsArray = jsonObject.getJSONArray(key);
+            List<String> availableTimes = new ArrayList<>();
+            for (int i = 0; i < slotsArray.length(); i++) {
+                JSONObject slot = slotsArray.getJSONObject(i);
+                // 시작 시간(start_hour)만 저장
+                availableTimes.add(slot.getString("start_hour"));
+            }
+
+            // 두 캘린더 응답이 동시에 들어오므로 출력이 섞이지 않게 묶어서 출력
+            synchronized (this) {
+                System.out.println("\n📍 " + key);
+                System.out.println(" - " + mapping.title + " : " + (availableTimes.isEmpty() ? "없음" : availableTimes));
+            }
+            saveToDatabase(mapping.brand, mapping.location, mapping.branch, mapping.title, mapping.id, key, availableTimes);
         }
+        return lastDate;
     }
 
     /**
      * 지정한 시작 날짜부터 numDays 일간의 데이터를 크롤링합니다.
+     * - 캘린더별로 한 번에 받을 수 있는 만큼 여러 날짜를 받고, 두 캘린더는 동시에 요청
      * @param startDateStr 시작 날짜 (yyyy-MM-dd 형식)
      * @param numDays 일수
      */
     public void crawlDateRange(String startDateStr, int numDays) {
+        RangeFetch fetch = null;
         try {
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-            Calendar cal = Calendar.getInstance();
-            cal.setTime(sdf.parse(startDateStr));
-            for (int i = 0; i < numDays; i++) {
-                String currentDate = sdf.format(cal.getTime());
-                // 두 캘린더 모두에 대해 API 호출 후 저장
-                fetchAndStore("lesportrait", currentDate);
-                fetchAndStore("hiraeth", currentDate);
-                cal.add(Calendar.DAY_OF_MONTH, 1);
+            LocalDate startDate = LocalDate.parse(startDateStr);
+            LocalDate endDate = startDate.plusDays(numDays - 1);
+
+            // 첫 요청 전에 커넥션을 미리 열어 둔다
+            HttpConfig.prewarm(API_BASE_URL);
+
+            fetch = new RangeFetch(CALENDAR_MAPPING.size());
+            for (String calendar : CALENDAR_MAPPING.keySet()) {
+                fetchRange(calendar, startDate, endDate, fetch);
             }
+            if (!fetch.done.await(2, TimeUnit.MINUTES)) {
+                System.err.println("⚠ 초상화 크롤링 시간 초과, 진행 중인 요청을 취소합니다.");
+                cancelAndAwait(fetch);
+            }
+        } catch (InterruptedException e) {
+            cancelAndAwait(fetch);
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * 진행 중인 요청을 취소하고, 이미 응답을 처리 중인 콜백이 끝날 때까지 잠깐 기다린다.
+     */
+    private void cancelAndAwait(RangeFetch fetch) {
+        if (fetch == null) return;
+        fetch.cancel();
+        try {
+            if (!fetch.done.await(10, TimeUnit.SECONDS)) {
+                System.err.println("⚠ 초상화 요청 취소 대기 시간 초과");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     public static void main(String[] args) {
         PortraitellerCrawling crawler = new PortraitellerCrawling();
         // 현재 날짜를 "yyyy-MM-dd" 형식으로 구해서, 7일간 크롤링하도록 함
         SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
         String todayStr = sdf.format(new Date());
-        crawler.crawlDateRange(todayStr, 1);
+        crawler.crawlDateRange(todayStr, 7);
     }
 }
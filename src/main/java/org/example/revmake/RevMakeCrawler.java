@@ -0,0 +1,211 @@
+package org.example.revmake;
+
+import okhttp3.HttpUrl;
+import org.bson.Document;
+import org.example.browser.BrowserBackend;
+import org.example.browser.BrowserBackends;
+import org.example.common.FallbackStats;
+import org.example.common.FanOut;
+import org.example.config.HttpConfig;
+import org.example.storage.ReservationSink;
+import org.jsoup.nodes.Element;
+
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * rev.make 예약 엔진 공용 크롤러
+ * - (지점 × 날짜) 페이지를 브라우저 없이 HTTP로 동시에 요청하고 Jsoup으로 파싱
+ * - HTTP 응답이 실패했거나 테마 박스가 없는(차단/마크업 변경) 단위만 브라우저로 다시 열어 같은 파서로 처리
+ *   (브라우저 세션은 그런 단위가 있을 때만 빌리므로 평소에는 크롬을 띄우지 않음)
+ * - .theme_box / .h3_theme / ul.reserve_Time li 마크업 공통
+ * - 결과는 (지점 → 날짜) 순서대로 출력 및 DB 저장
+ */
+public class RevMakeCrawler {
+
+    private static final String THEME_BOX_SELECTOR = "div.theme_box";
+
+    private final RevMakeSite site;
+    private final ReservationSink reservationSink;
+
+    /**
+     * 페이지에서 추출한 테마 한 개
+     */
+    public static class ParsedTheme {
+        final String extractedTitle; // HTML에서 추출한 제목
+        final List<String> availableTimes;
+        ParsedTheme(String extractedTitle, List<String> availableTimes) {
+            this.extractedTitle = extractedTitle;
+            this.availableTimes = availableTimes;
+        }
+    }
+
+    /**
+     * (지점, 날짜) 요청 단위
+     */
+    private static class FetchUnit {
+        final RevMakeSite.Store store;
+        final String date;
+        FetchUnit(RevMakeSite.Store store, String date) {
+            this.store = store;
+            this.date = date;
+        }
+    }
+
+    public RevMakeCrawler(RevMakeSite site) {
+        this.site = site;
+        this.reservationSink = ReservationSink.shared();
+    }
+
+    /**
+     * 오늘부터 days 일간 모든 지점을 크롤링한다.
+     */
+    public void crawl(int days) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+
+        // 첫 요청 전에 커넥션을 미리 열어 둔다
+        HttpConfig.prewarm(site.baseUrl);
+
+        // 지점 × 날짜 요청 목록 (지점 순 → 날짜 순)
+        List<FetchUnit> units = new ArrayList<>();
+        for (RevMakeSite.Store store : site.stores) {
+            Calendar cal = Calendar.getInstance();
+            for (int i = 0; i < days; i++) {
+                units.add(new FetchUnit(store, dateFormat.format(cal.getTime())));
+                cal.add(Calendar.DAY_OF_MONTH, 1);
+            }
+        }
+
+        // 모든 요청을 동시에 보내고(호스트당 동시 요청 수 제한), 결과는 요청 목록 순서대로 받는다
+        List<List<ParsedTheme>> results = FanOut.mapOrdered(units, HttpConfig.maxRequestsPerHost(), this::fetchThemes);
+
+        List<Integer> failed = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) failed.add(i);
+        }
+        if (!failed.isEmpty()) {
+            System.err.println("⚠ [" + site.brand + "] HTTP 응답 " + failed.size() + "/" + units.size() + "건 검증 실패, 브라우저로 다시 시도합니다.");
+            fetchWithBrowser(units, results, failed);
+        }
+        FallbackStats.record(site.name, units.size(), failed.size());
+
+        for (int i = 0; i < units.size(); i++) {
+            FetchUnit unit = units.get(i);
+            if (results.get(i) == null) {
+                System.out.println("❌ " + unit.store.branch + " (" + unit.date + ") 페이지 요청 실패");
+                continue;
+            }
+            saveThemes(unit, results.get(i));
+        }
+    }
+
+    /**
+     * 테마 박스가 하나도 없는 응답(차단 안내, 마크업 변경 등)은 실패(null)로 본다.
+     */
+    private List<ParsedTheme> fetchThemes(FetchUnit unit) {
+        org.jsoup.nodes.Document doc = HttpConfig.fetchDocument(buildUrl(unit.store, unit.date));
+        if (doc == null || doc.selectFirst(THEME_BOX_SELECTOR) == null) return null;
+        return parseThemes(doc, site.timeSelector);
+    }
+
+    /**
+     * HTTP 에서 실패한 단위만 브라우저 세션 하나로 차례로 열어 results 를 채운다.
+     * - 브라우저 백엔드는 BROWSER_BACKEND_<사이트 이름> 으로 선택 (예: BROWSER_BACKEND_EROOM8=htmlunit)
+     */
+    private void fetchWithBrowser(List<FetchUnit> units, List<List<ParsedTheme>> results, List<Integer> failed) {
+        try (BrowserBackend browser = BrowserBackends.open(site.name)) {
+            for (int index : failed) {
+                FetchUnit unit = units.get(index);
+                try {
+                    browser.navigate(buildUrl(unit.store, unit.date));
+                    if (browser.waitFor(THEME_BOX_SELECTOR, Duration.ofSeconds(10))) {
+                        results.set(index, parseThemes(browser.snapshot(), site.timeSelector));
+                    }
+                } catch (Exception e) {
+                    System.err.println("❌ " + unit.store.branch + " (" + unit.date + ") 브라우저 요청 실패: " + e.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("❌ [" + site.brand + "] 브라우저 세션 오류: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 예: home.php?go=rev.make&rev_days=2025-03-10&s_zizum=1
+     */
+    String buildUrl(RevMakeSite.Store store, String date) {
+        HttpUrl.Builder url = HttpUrl.get(site.baseUrl).newBuilder()
+                .addQueryParameter("go", "rev.make")
+                .addQueryParameter("rev_days", date);
+        if (store.zizum != null) {
+            url.addQueryParameter("s_zizum", store.zizum);
+        }
+        return url.build().toString();
+    }
+
+    /**
+     * 테마 박스별로 제목과 예약 가능 시간을 추출한다.
+     */
+    public static List<ParsedTheme> parseThemes(org.jsoup.nodes.Document doc, String timeSelector) {
+        List<ParsedTheme> themeList = new ArrayList<>();
+        for (Element box : doc.select(THEME_BOX_SELECTOR)) {
+            Element titleEl = box.selectFirst("h3.h3_theme");
+            if (titleEl == null) continue;
+
+            List<String> availableTimes = new ArrayList<>();
+            for (Element timeEl : box.select(timeSelector)) {
+                String timeText = timeEl.text().replace("☆", "").trim();
+                if (!timeText.isEmpty()) {
+                    availableTimes.add(timeText);
+                }
+            }
+            themeList.add(new ParsedTheme(titleEl.text().trim(), availableTimes));
+        }
+        return themeList;
+    }
+
+    private void saveThemes(FetchUnit unit, List<ParsedTheme> themes) {
+        // 날짜별로 첫 번째 테마가 나오기 전까진 "📍 지점 (날짜)"를 출력하기 위해 사용
+        boolean isFirstTheme = true;
+
+        for (ParsedTheme pt : themes) {
+            RevMakeSite.ThemeMapping mapping = site.matcher.match(pt.extractedTitle, unit.store);
+            if (mapping == null) {
+                if (!site.saveUnmapped) continue;
+                // 매핑이 없으면 임시 정보 사용
+                mapping = new RevMakeSite.ThemeMapping(0, site.brand, unit.store.location, unit.store.branch, pt.extractedTitle);
+            }
+
+            if (isFirstTheme) {
+                System.out.println("\n📍 " + unit.store.branch + " (" + unit.date + ")");
+                isFirstTheme = false;
+            }
+            System.out.println(" - " + mapping.title + " : " + (pt.availableTimes.isEmpty() ? "없음" : pt.availableTimes));
+
+            saveToDatabase(mapping, unit.date, pt.availableTimes);
+        }
+    }
+
+    private void saveToDatabase(RevMakeSite.ThemeMapping mapping, String date, List<String> availableTimes) {
+        try {
+            Document filter = new Document("title", mapping.title)
+                    .append("date", date)
+                    .append("brand", mapping.brand);
+
+            Document docToSave = new Document("brand", mapping.brand)
+                    .append("location", mapping.location)
+                    .append("branch", mapping.branch)
+                    .append("title", mapping.title)
+                    .append("id", mapping.id)
+                    .append("date", date)
+                    .append("availableTimes", availableTimes)
+                    .append("updatedAt", new Date())
+                    .append("expireAt", new Date(System.currentTimeMillis() + 24L * 60 * 60 * 1000));
+
+            reservationSink.upsert(filter, new Document("$set", docToSave));
+        } catch (Exception e) {
+            System.err.println("DB 저장 오류: " + e.getMessage());
+        }
+    }
+}
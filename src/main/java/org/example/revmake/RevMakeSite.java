@@ -0,0 +1,100 @@
+package org.example.revmake;
+
+import java.util.List;
+
+/**
+ * rev.make 예약 엔진(layout/res/home.php?go=rev.make) 을 쓰는 사이트 설정
+ * - 황금열쇠, 엑소더스이스케이프, 이룸에이트, 포인트나인이 같은 엔진/마크업을 사용
+ * - 사이트마다 다른 부분(호스트, 지점 s_zizum, 테마 매칭 방식, 예약가능 시간 선택자)만 여기서 정의
+ */
+public class RevMakeSite {
+
+    // 예약 링크(href)가 있고 예약 가능 표시(span.possible)가 있는 시간만 선택 (황금열쇠)
+    public static final String LINKED_POSSIBLE_TIME_SELECTOR = "div.time_Area ul.reserve_Time li a[href]:has(span.possible) span.time";
+    // 예약 가능 표시(span.possible)가 있는 시간만 선택 (엑소더스, 링크 여부는 보지 않음)
+    public static final String POSSIBLE_TIME_SELECTOR = "div.time_Area ul.reserve_Time li:has(span.possible) span.time";
+    // 마감(a.end)이 아닌 시간만 선택 (이룸에이트, 포인트나인)
+    public static final String NOT_END_TIME_SELECTOR = ".time_Area ul.reserve_Time li a:not(.end) .time";
+
+    /**
+     * 지점 정보
+     * - zizum: s_zizum 파라미터 값 (단일 지점 사이트는 null)
+     * - location/branch: 매핑되지 않은 테마를 저장할 때 사용하는 기본값
+     */
+    public static class Store {
+        final String zizum;
+        final String location;
+        final String branch;
+        public Store(String zizum, String location, String branch) {
+            this.zizum = zizum;
+            this.location = location;
+            this.branch = branch;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public String getBranch() {
+            return branch;
+        }
+    }
+
+    /**
+     * 미리 정의한 테마 매핑 정보
+     */
+    public static class ThemeMapping {
+        final int id;
+        final String brand;
+        final String location;
+        final String branch;
+        final String title;
+        public ThemeMapping(int id, String brand, String location, String branch, String title) {
+            this.id = id;
+            this.brand = brand;
+            this.location = location;
+            this.branch = branch;
+            this.title = title;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+    }
+
+    /**
+     * HTML에서 추출한 테마명 → 미리 정의한 매핑 (없으면 null)
+     */
+    @FunctionalInterface
+    public interface ThemeMatcher {
+        ThemeMapping match(String extractedTitle, Store store);
+    }
+
+    final String name;
+    final String brand;
+    final String baseUrl;
+    final List<Store> stores;
+    final String timeSelector;
+    final boolean saveUnmapped;
+    final ThemeMatcher matcher;
+
+    /**
+     * @param name         사이트 이름 (로그, 브라우저 백엔드 설정 BROWSER_BACKEND_<이름> 에 사용)
+     * @param brand        브랜드명 (매핑되지 않은 테마 저장 시 사용)
+     * @param baseUrl      예약 페이지 주소 (예: "https://eroom8.co.kr/layout/res/home.php")
+     * @param stores       크롤링할 지점 목록
+     * @param timeSelector 테마 박스 안에서 예약 가능한 시간 텍스트를 고르는 선택자
+     * @param saveUnmapped 매핑되지 않은 테마도 id 0 으로 저장할지 여부
+     * @param matcher      테마명 매칭 방식
+     */
+    public RevMakeSite(String name, String brand, String baseUrl, List<Store> stores, String timeSelector,
+                       boolean saveUnmapped, ThemeMatcher matcher) {
+        this.name = name;
+        this.brand = brand;
+        this.baseUrl = baseUrl;
+        this.stores = stores;
+        this.timeSelector = timeSelector;
+        this.saveUnmapped = saveUnmapped;
+        this.matcher = matcher;
+    }
+}
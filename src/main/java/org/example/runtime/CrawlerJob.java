@@ -0,0 +1,29 @@
+package org.example.runtime;
+
+/**
+ * 런타임에서 주기적으로 실행되는 크롤러 한 종류
+ * - name: 로그/환경 변수(CRAWLERS)에서 사용하는 이름
+ * - usesBrowser: 크롬을 띄우는 크롤러인지 여부 (동시 실행 브라우저 수 제한에 사용)
+ * - cycle: 크롤링 1회 실행 로직
+ */
+public class CrawlerJob {
+
+    @FunctionalInterface
+    public interface Cycle {
+        void run() throws Exception;
+    }
+
+    final String name;
+    final boolean usesBrowser;
+    final Cycle cycle;
+
+    public CrawlerJob(String name, boolean usesBrowser, Cycle cycle) {
+        this.name = name;
+        this.usesBrowser = usesBrowser;
+        this.cycle = cycle;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.runtime;
+
+import org.example.beatphobia.BeatphobiaCrawling;
+import org.example.browser.WebDriverPool;
+import org.example.danpyeonseon.DanpyeonseonCrawling;
+import org.example.eroom8.Eroom8Crawling;
+import org.example.exodus.ExodusEscapeCrawling;
+import org.example.fantastrick.FantastrickCrawling;
+import org.example.goldenkey.GoldenkeyCrawling;
+import org.example.keyescape.KeyEscapeCrawling;
+import org.example.kukuroom.KukuRoom;
+import org.example.masterkey.MasterkeyCrawling;
+import org.example.playtheworld.PlayTheWorldCrawling;
+import org.example.pointnine.PointNineCrawling;
+import org.example.portraiteller.PortraitellerCrawling;
+import org.example.signescape.SignescapeCrawling;
+import org.example.zeroworld.ZeroworldCrawling;
+import org.openqa.selenium.WebDriver;
+
+import java.text.SimpleDateFormat;
+import java.util.*;
+
+/**
+ * 런타임이 실행할 14개 크롤러 목록
+ * - 각 크롤러의 main 과 동일한 방식으로 1회 크롤링을 수행한다.
+ * - 크롤러 인스턴스는 매 주기마다 새로 만든다. (finalMap 등 인스턴스 상태가 주기 간에 섞이지 않도록)
+ */
+public class CrawlerRegistry {
+
+    @FunctionalInterface
+    private interface DriverTask {
+        void run(WebDriver driver) throws Exception;
+    }
+
+    public static List<CrawlerJob> all() {
+        return Arrays.asList(
+                new CrawlerJob("keyescape", false, () -> new KeyEscapeCrawling().crawlReservations(7)),
+                new CrawlerJob("danpyeonseon", false, () -> new DanpyeonseonCrawling().crawlAllDates(today())),
+                new CrawlerJob("beatphobia", false, () -> new BeatphobiaCrawling().crawlReservations(7)),
+                new CrawlerJob("eroom8", false, () -> new Eroom8Crawling().crawlReservations(today(), 7)),
+                new CrawlerJob("exodus", false, () -> new ExodusEscapeCrawling().crawlReservations(7)),
+                new CrawlerJob("fantastrick", false, () -> new FantastrickCrawling().crawlAllDates()),
+                new CrawlerJob("goldenkey", false, () -> new GoldenkeyCrawling().crawlAllDates()),
+                new CrawlerJob("masterkey", false, () -> new MasterkeyCrawling().crawlReservations(today(), 7)),
+                new CrawlerJob("kukuroom", false, () -> new KukuRoom().crawlAllDates()),
+                new CrawlerJob("playtheworld", false, () -> new PlayTheWorldCrawling().crawlAllDates()),
+                new CrawlerJob("pointnine", false, () -> new PointNineCrawling().crawlReservations(7)),
+                new CrawlerJob("portraiteller", false, () -> new PortraitellerCrawling().crawlDateRange(today(), 7)),
+                new CrawlerJob("signescape", false, () -> new SignescapeCrawling().crawlFromToday(7)),
+                new CrawlerJob("zeroworld", true, () -> withDriver(driver ->
+                        new ZeroworldCrawling(driver).crawlNext7Days()))
+        );
+    }
+
+    /**
+     * 이름 목록(쉼표 구분)에 해당하는 크롤러만 선택한다. 비어 있으면 전체.
+     */
+    public static List<CrawlerJob> select(String names) {
+        List<CrawlerJob> jobs = all();
+        if (names == null || names.isBlank()) {
+            return jobs;
+        }
+
+        Set<String> wanted = new LinkedHashSet<>();
+        for (String name : names.split(",")) {
+            if (!name.isBlank()) wanted.add(name.trim().toLowerCase());
+        }
+
+        List<CrawlerJob> selected = new ArrayList<>();
+        for (CrawlerJob job : jobs) {
+            if (wanted.remove(job.name)) selected.add(job);
+        }
+        for (String unknown : wanted) {
+            System.err.println("⚠ 알 수 없는 크롤러 이름: " + unknown);
+        }
+        return selected;
+    }
+
+    /**
+     * 공유 세션 풀에서 크롬을 빌려 실행하고 반납한다. (크롬을 매 주기 새로 띄우지 않음)
+     */
+    private static void withDriver(DriverTask task) throws Exception {
+        try (WebDriverPool.Lease lease = WebDriverPool.shared().lease()) {
+            task.run(lease.driver());
+        }
+    }
+
+    private static String today() {
+        return new SimpleDateFormat("yyyy-MM-dd").format(new Date());
+    }
+}
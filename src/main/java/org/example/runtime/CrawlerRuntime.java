@@ -0,0 +1,151 @@
+package org.example.runtime;
+
+import org.example.browser.Waits;
+import org.example.browser.WebDriverPool;
+import org.example.common.FallbackStats;
+import org.example.config.Env;
+import org.example.config.MongoConfig;
+import org.example.storage.ReservationSink;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 모든 크롤러를 하나의 JVM에서 주기적으로 실행하는 런타임
+ * - 크롤러별 컨테이너/JVM/Mongo 연결/크롬을 따로 띄우던 구조를 대체한다.
+ * - 공용 스케줄러 스레드풀에서 각 크롤러를 CRAWL_INTERVAL_SECONDS 간격으로 실행
+ * - 크롬을 쓰는 크롤러는 MAX_BROWSERS 개까지만 동시에 실행
+ * - 주기마다 DB 저장 건수/시간(ReservationSink), 브라우저 대기 시간(Waits)과 HTTP → 브라우저 폴백 비율(FallbackStats)을 출력하고, 놀고 있는 크롬을 정리
+ *
+ * 환경 변수
+ * - CRAWLERS: 실행할 크롤러 이름 (쉼표 구분, 비어 있으면 전체)
+ * - CRAWL_INTERVAL_SECONDS: 한 크롤러의 주기 종료 ~ 다음 주기 시작 간격 (기본 600초)
+ * - CRAWLER_THREADS: 동시에 실행할 크롤러 수 (기본 4)
+ * - MAX_BROWSERS: 동시에 띄울 수 있는 크롬 수 (기본 2)
+ * - CRAWL_STAGGER_SECONDS: 시작 시 크롤러 간 실행 간격 (기본 5초)
+ * - CRAWL_SHUTDOWN_SECONDS: 종료 시 실행 중인 크롤러를 기다리는 최대 시간 (기본 60초, 이후 남은 저장 건 전송은 MONGO_SHUTDOWN_SECONDS)
+ * - 크롬 세션 풀 설정은 WebDriverPool 참고 (BROWSER_POOL_SIZE, BROWSER_POOL_WARM 등)
+ */
+public class CrawlerRuntime {
+
+    private final ScheduledExecutorService scheduler;
+    private final Semaphore browserSlots;
+    private final long intervalSeconds;
+    private final long staggerSeconds;
+
+    public CrawlerRuntime(int threads, int maxBrowsers, long intervalSeconds, long staggerSeconds) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        this.scheduler = Executors.newScheduledThreadPool(threads,
+                r -> new Thread(r, "crawler-" + threadNumber.getAndIncrement()));
+        this.browserSlots = new Semaphore(maxBrowsers, true);
+        this.intervalSeconds = intervalSeconds;
+        this.staggerSeconds = staggerSeconds;
+    }
+
+    public void start(List<CrawlerJob> jobs) {
+        for (int i = 0; i < jobs.size(); i++) {
+            CrawlerJob job = jobs.get(i);
+            // 시작 시 한꺼번에 몰리지 않도록 크롤러마다 조금씩 늦게 시작
+            scheduler.scheduleWithFixedDelay(() -> runCycle(job), i * staggerSeconds, intervalSeconds, TimeUnit.SECONDS);
+        }
+        System.out.println("🚀 크롤러 런타임 시작: " + jobs.size() + "개 크롤러, 주기 " + intervalSeconds + "초");
+    }
+
+    /**
+     * 크롤링 1회 실행
+     * - 예외가 밖으로 나가면 scheduleWithFixedDelay가 이후 실행을 멈추므로 모두 여기서 잡는다.
+     */
+    private void runCycle(CrawlerJob job) {
+        boolean acquired = false;
+        long start = System.currentTimeMillis();
+        try {
+            if (job.usesBrowser) {
+                browserSlots.acquire();
+                acquired = true;
+            }
+            System.out.println("\n▶ [" + job.name + "] 크롤링 시작");
+            job.cycle.run();
+            // 저장 전송을 기다리는 동안 크롬 슬롯을 붙잡지 않도록 먼저 반납
+            if (acquired) {
+                browserSlots.release();
+                acquired = false;
+            }
+            // 이번 주기에 넣은 저장 건이 전송된 뒤에 완료로 본다
+            ReservationSink.shared().flush();
+            System.out.println("✅ [" + job.name + "] 크롤링 완료 (" + (System.currentTimeMillis() - start) + "ms)");
+            // 이번 주기에 크롬 대기가 있었으면 실제 대기 시간을 남긴다
+            String waitSummary = Waits.drainSummary();
+            if (waitSummary != null) {
+                System.out.println(waitSummary);
+            }
+            String writeSummary = ReservationSink.shared().drainSummary();
+            if (writeSummary != null) {
+                System.out.println(writeSummary);
+            }
+            // HTTP 검증 실패로 브라우저를 쓴 비율
+            String fallbackSummary = FallbackStats.drainSummary();
+            if (fallbackSummary != null) {
+                System.out.println(fallbackSummary);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable t) {
+            System.err.println("❌ [" + job.name + "] 크롤링 오류: " + t.getMessage());
+            t.printStackTrace();
+        } finally {
+            if (acquired) browserSlots.release();
+            // 폴백으로 띄웠다가 놀고 있는 크롬은 정리 (평소에는 크롬 프로세스가 없도록)
+            WebDriverPool.trimSharedIdle();
+        }
+    }
+
+    public void shutdown() {
+        scheduler.shutdown();
+        try {
+            // 실행 중인 크롤러가 주기를 마칠 때까지 기다린다 (스팟 종료 알림 2분 안에 저장까지 끝나도록)
+            if (!scheduler.awaitTermination(Env.getLong("CRAWL_SHUTDOWN_SECONDS", 60), TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        System.out.println("크롤러 런타임 종료.");
+    }
+
+    public void awaitTermination() throws InterruptedException {
+        scheduler.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String names = (args.length > 0) ? String.join(",", args) : Env.getString("CRAWLERS", "");
+        List<CrawlerJob> jobs = CrawlerRegistry.select(names);
+        if (jobs.isEmpty()) {
+            System.err.println("❌ 실행할 크롤러가 없습니다.");
+            return;
+        }
+
+        CrawlerRuntime runtime = new CrawlerRuntime(
+                Env.getInt("CRAWLER_THREADS", 4),
+                Env.getInt("MAX_BROWSERS", 2),
+                Env.getLong("CRAWL_INTERVAL_SECONDS", 600),
+                Env.getLong("CRAWL_STAGGER_SECONDS", 5)
+        );
+        // 종료 시(SIGTERM 포함) 실행 중인 주기를 마친 뒤 크롬/HTTP 정리 → 남은 저장 건을 보내고 Mongo 연결을 닫는다
+        // (크롬 풀/HTTP 클라이언트는 처음 쓸 때 정리 작업을 등록하므로, 런타임 정지를 가장 먼저 등록한다)
+        MongoConfig.beforeClose(runtime::shutdown);
+
+        // Mongo 연결은 런타임 전체에서 하나만 만든다.
+        MongoConfig.getMongoClient();
+
+        // 크롬을 쓰는 크롤러가 있으면 세션을 미리 띄워 둔다. (기본 0: 폴백이 필요할 때 처음 빌리면서 띄움)
+        int warm = Env.getInt("BROWSER_POOL_WARM", 0);
+        if (warm > 0 && jobs.stream().anyMatch(job -> job.usesBrowser)) {
+            WebDriverPool.shared().warmUp(warm);
+        }
+
+        runtime.start(jobs);
+        runtime.awaitTermination();
+    }
+}
@@ -1,13 +1,9 @@
 package org.example.signescape;
 
-import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.model.UpdateOptions;
-import okhttp3.OkHttpClient;
 import org.bson.Document;
-import org.example.config.MongoConfig;
-import org.jsoup.Jsoup;
+import org.example.common.FanOut;
+import org.example.config.HttpConfig;
+import org.example.storage.ReservationSink;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
@@ -16,8 +12,9 @@ import java.util.*;
 
 public class SignescapeCrawling {
 
-    private final MongoCollection<Document> reservationCollection;
-    private final OkHttpClient client = new OkHttpClient();
+    private static final String BASE_URL = "http://www.signescape.com/sub/sub03_1.html";
+
+    private final ReservationSink reservationSink;
     private final Set<String> processedDates = new HashSet<>(); // 중복 실행 방지
 
     private static class ThemeMapping {
@@ -73,35 +70,42 @@ public class SignescapeCrawling {
     }
 
     public SignescapeCrawling() {
-        MongoClient mongoClient = MongoConfig.getMongoClient();
-        MongoDatabase database = mongoClient.getDatabase("scrd");
-        this.reservationCollection = database.getCollection("reservation");
+        this.reservationSink = ReservationSink.shared();
     }
 
-    private Map<String, List<String>> fetchBranchData(BranchMapping branchMapping, String dateStr) {
-        Map<String, List<String>> branchData = new LinkedHashMap<>();
-        for (ThemeMapping themeMapping : branchMapping.themes) {
-            try {
-                String url = "http://www.signescape.com/sub/sub03_1.html?R_JIJEM="
-                        + branchMapping.branchCode
-                        + "&chois_date=" + dateStr
-                        + "&R_THEMA=" + themeMapping.themeCode
-                        + "&DIS_T=";
-                org.jsoup.nodes.Document doc = Jsoup.connect(url).get();
-                Elements timeElements = doc.select("div#reser4 ul.list li.timeOn");
-                List<String> availableTimes = new ArrayList<>();
-                for (Element timeEl : timeElements) {
-                    String timeText = timeEl.text().replace("☆", "").trim();
-                    availableTimes.add(timeText);
-                }
-                branchData.put(themeMapping.title, availableTimes);
-                saveToDatabase("싸인 이스케이프", branchMapping.location, branchMapping.branch,
-                        themeMapping.title, themeMapping.id, dateStr, availableTimes);
-            } catch (Exception e) {
-                System.err.println("fetchAndStore() 오류: " + e.getMessage());
-            }
+    /**
+     * (지점, 테마, 날짜) 요청 단위
+     */
+    private static class FetchUnit {
+        BranchMapping branch;
+        ThemeMapping theme;
+        String date;
+        FetchUnit(BranchMapping branch, ThemeMapping theme, String date) {
+            this.branch = branch;
+            this.theme = theme;
+            this.date = date;
         }
-        return branchData;
+    }
+
+    /**
+     * 테마 하나의 예약 가능 시간을 가져온다. 실패 시 null.
+     */
+    private List<String> fetchThemeTimes(FetchUnit unit) {
+        String url = BASE_URL + "?R_JIJEM="
+                + unit.branch.branchCode
+                + "&chois_date=" + unit.date
+                + "&R_THEMA=" + unit.theme.themeCode
+                + "&DIS_T=";
+        org.jsoup.nodes.Document doc = HttpConfig.fetchDocument(url);
+        if (doc == null) return null;
+
+        Elements timeElements = doc.select("div#reser4 ul.list li.timeOn");
+        List<String> availableTimes = new ArrayList<>();
+        for (Element timeEl : timeElements) {
+            String timeText = timeEl.text().replace("☆", "").trim();
+            availableTimes.add(timeText);
+        }
+        return availableTimes;
     }
 
     private void saveToDatabase(String brand, String location, String branch, String title, int id, String date, List<String> availableTimes) {
@@ -118,24 +122,60 @@ public class SignescapeCrawling {
                     .append("availableTimes", availableTimes)
                     .append("updatedAt", new Date())
                     .append("expireAt", new Date(System.currentTimeMillis() + 24L * 60 * 60 * 1000));
-            reservationCollection.updateOne(filter, new Document("$set", docToSave), new UpdateOptions().upsert(true));
+            reservationSink.upsert(filter, new Document("$set", docToSave));
         } catch (Exception e) {
             System.err.println("DB 저장 오류: " + e.getMessage());
         }
     }
 
 
+    /**
+     * 오늘부터 numDays 일간 (날짜 × 지점 × 테마) 페이지를 동시에 요청하고,
+     * 지점별로 모아서 출력/저장한다.
+     */
     public void crawlFromToday(int numDays) {
         try {
             SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
             Calendar cal = Calendar.getInstance();
+
+            // 첫 요청 전에 커넥션을 미리 열어 둔다
+            HttpConfig.prewarm(BASE_URL);
+
+            List<String> dates = new ArrayList<>();
             for (int i = 0; i < numDays; i++) {
                 String currentDate = sdf.format(cal.getTime());
-                if (processedDates.contains(currentDate)) {
-                    continue;
+                if (!processedDates.contains(currentDate)) {
+                    dates.add(currentDate);
+                }
+                cal.add(Calendar.DAY_OF_MONTH, 1);
+            }
+
+            // 날짜 순 → 지점 순 → 테마 순
+            List<FetchUnit> units = new ArrayList<>();
+            for (String date : dates) {
+                for (BranchMapping branchMapping : BRANCH_MAPPINGS) {
+                    for (ThemeMapping themeMapping : branchMapping.themes) {
+                        units.add(new FetchUnit(branchMapping, themeMapping, date));
+                    }
                 }
+            }
+
+            // 모든 요청을 동시에 보내고(호스트당 동시 요청 수 제한), 결과는 요청 목록 순서대로 받는다
+            List<List<String>> results = FanOut.mapOrdered(units, HttpConfig.maxRequestsPerHost(), this::fetchThemeTimes);
+
+            int index = 0;
+            for (String currentDate : dates) {
                 for (BranchMapping branchMapping : BRANCH_MAPPINGS) {
-                    Map<String, List<String>> branchData = fetchBranchData(branchMapping, currentDate);
+                    // 지점 단위로 결과를 모은 뒤 저장/출력 (요청 실패한 테마는 제외)
+                    Map<String, List<String>> branchData = new LinkedHashMap<>();
+                    for (ThemeMapping themeMapping : branchMapping.themes) {
+                        List<String> availableTimes = results.get(index++);
+                        if (availableTimes == null) continue;
+                        branchData.put(themeMapping.title, availableTimes);
+                        saveToDatabase("싸인 이스케이프", branchMapping.location, branchMapping.branch,
+                                themeMapping.title, themeMapping.id, currentDate, availableTimes);
+                    }
+
                     if (!branchData.isEmpty()) {
                         System.out.println("\n📍 " + branchMapping.branch + " (" + currentDate + ")");
                         for (Map.Entry<String, List<String>> entry : branchData.entrySet()) {
@@ -144,7 +184,6 @@ public class SignescapeCrawling {
                     }
                 }
                 processedDates.add(currentDate);
-                cal.add(Calendar.DAY_OF_MONTH, 1);
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -0,0 +1,373 @@
+package org.example.storage;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.example.config.Env;
+import org.example.config.MongoConfig;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * reservation 컬렉션 저장을 백그라운드에서 모아서 보내는 공용 저장소
+ * - 크롤러는 upsert() 로 큐에 넣기만 하고 바로 돌아간다. (Atlas 지연이 크롤링/크롬 세션을 붙잡지 않음)
+ * - 큐는 MONGO_QUEUE_CAPACITY 건까지만 받고, 가득 차면 upsert() 가 자리가 날 때까지 기다린다. (메모리 상한)
+ * - 전송 스레드 하나가 큐에서 최대 배치 크기만큼 꺼내 unordered bulkWrite 로 보낸다.
+ *   같은 (테마, 날짜) 필터가 한 배치에 여러 번 있으면 마지막 것만 보낸다. (unordered 배치 안에서 순서가 뒤바뀌지 않도록)
+ *   배치는 차례로 하나씩 보내므로 같은 필터의 갱신은 넣은 순서대로 반영된다.
+ * - 배치 크기는 실제 전송 시간에 맞춰 조절: MONGO_TARGET_WRITE_MILLIS 를 넘으면 절반, 절반 이하로 끝나면 두 배
+ * - 네트워크 오류 등으로 배치 전체가 실패하면 MONGO_WRITE_RETRIES 번 다시 보낸다. (upsert 라 다시 보내도 안전)
+ *   건별 실패(MongoBulkWriteException)는 필터와 함께 따로 출력
+ * - flush() 는 호출 전에 넣은 건이 모두 전송될 때까지 MONGO_FLUSH_TIMEOUT_SECONDS 까지만 기다린다. (런타임 주기 종료)
+ *   Atlas 장애 중에도 크롤러 주기가 멈추지 않도록, 시간이 지나면 남은 건수만 출력하고 돌아간다. (전송은 계속됨)
+ *
+ * 환경 변수
+ * - MONGO_QUEUE_CAPACITY: 전송 대기 큐 크기 (기본 10000)
+ * - MONGO_BATCH_SIZE: 처음 배치 크기 (기본 500)
+ * - MONGO_MIN_BATCH_SIZE / MONGO_MAX_BATCH_SIZE: 배치 크기 조절 범위 (기본 50 / 2000)
+ * - MONGO_TARGET_WRITE_MILLIS: 배치 하나의 목표 전송 시간 (기본 500ms)
+ * - MONGO_FLUSH_MILLIS: 배치가 다 차지 않았을 때 더 모으기 위해 기다리는 최대 시간 (기본 1000ms)
+ * - MONGO_WRITE_RETRIES: 배치 전체 실패 시 재시도 횟수 (기본 2)
+ * - MONGO_FLUSH_TIMEOUT_SECONDS: 주기 종료 시 이번 주기 저장 건을 기다리는 최대 시간 (기본 30초)
+ * - MONGO_SHUTDOWN_SECONDS: 종료 시 남은 건을 보내기 위해 기다리는 최대 시간 (기본 30초)
+ */
+public class ReservationSink implements AutoCloseable {
+
+    private static volatile ReservationSink shared;
+
+    private final MongoCollection<Document> collection;
+    private final BlockingQueue<Pending> queue;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long targetWriteMillis;
+    private final long lingerMillis;
+    private final int writeRetries;
+    private final long flushMillis;
+    private final long shutdownMillis;
+    private final Thread writer;
+
+    // 전송 스레드만 바꾼다
+    private volatile int batchSize;
+
+    // flush() 대기용: 넣은 건수 / 전송(성공/실패 포함)이 끝난 건수
+    private final AtomicLong enqueued = new AtomicLong();
+    private final Object progress = new Object();
+    private long completed;
+
+    private volatile boolean closed;
+
+    // drainSummary() 용 기록
+    private final AtomicLong records = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong writeMillis = new AtomicLong();
+    private final AtomicLong blockedMillis = new AtomicLong();
+
+    /**
+     * 큐에 들어간 저장 한 건
+     */
+    private static class Pending {
+        final String key;
+        final Bson filter;
+        final Bson update;
+        Pending(String key, Bson filter, Bson update) {
+            this.key = key;
+            this.filter = filter;
+            this.update = update;
+        }
+    }
+
+    public ReservationSink(MongoCollection<Document> collection, int queueCapacity, int batchSize,
+                           int minBatchSize, int maxBatchSize, long targetWriteMillis, long lingerMillis,
+                           int writeRetries, long flushTimeoutSeconds, long shutdownSeconds) {
+        this.collection = collection;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.minBatchSize = Math.max(1, minBatchSize);
+        this.maxBatchSize = Math.max(this.minBatchSize, maxBatchSize);
+        this.batchSize = Math.min(Math.max(batchSize, this.minBatchSize), this.maxBatchSize);
+        this.targetWriteMillis = targetWriteMillis;
+        this.lingerMillis = lingerMillis;
+        this.writeRetries = writeRetries;
+        this.flushMillis = flushTimeoutSeconds * 1000;
+        this.shutdownMillis = shutdownSeconds * 1000;
+
+        this.writer = new Thread(this::writeLoop, "reservation-sink");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // 공유 저장소를 가져오는 메서드 (싱글톤 패턴으로 구현)
+    public static ReservationSink shared() {
+        if (shared == null) {
+            synchronized (ReservationSink.class) {
+                if (shared == null) {
+                    MongoCollection<Document> collection = MongoConfig.getMongoClient()
+                            .getDatabase("scrd")
+                            .getCollection("reservation");
+                    shared = new ReservationSink(collection,
+                            Env.getInt("MONGO_QUEUE_CAPACITY", 10000),
+                            Env.getInt("MONGO_BATCH_SIZE", 500),
+                            Env.getInt("MONGO_MIN_BATCH_SIZE", 50),
+                            Env.getInt("MONGO_MAX_BATCH_SIZE", 2000),
+                            Env.getLong("MONGO_TARGET_WRITE_MILLIS", 500),
+                            Env.getLong("MONGO_FLUSH_MILLIS", 1000),
+                            Env.getInt("MONGO_WRITE_RETRIES", 2),
+                            Env.getLong("MONGO_FLUSH_TIMEOUT_SECONDS", 30),
+                            Env.getLong("MONGO_SHUTDOWN_SECONDS", 30));
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * 공유 저장소가 만들어진 경우에만 닫는다. (남은 건 flush)
+     */
+    public static void closeShared() {
+        ReservationSink sink = shared;
+        if (sink != null) {
+            sink.close();
+        }
+    }
+
+    /**
+     * filter 에 맞는 문서를 update 로 갱신한다. (없으면 생성)
+     * - 큐에 넣기만 하고 돌아온다. 큐가 가득 차 있으면 자리가 날 때까지 기다린다.
+     */
+    public void upsert(Bson filter, Bson update) {
+        if (closed) {
+            throw new IllegalStateException("ReservationSink 가 종료되었습니다.");
+        }
+        Pending pending = new Pending(keyOf(filter), filter, update);
+        if (queue.offer(pending)) {
+            enqueued.incrementAndGet();
+            return;
+        }
+
+        // 전송이 밀려 큐가 가득 참 → 크롤러 쪽을 잠시 멈춰 메모리가 계속 늘지 않도록
+        long start = System.currentTimeMillis();
+        try {
+            queue.put(pending);
+            enqueued.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("저장 대기 중 인터럽트", e);
+        } finally {
+            blockedMillis.addAndGet(System.currentTimeMillis() - start);
+        }
+    }
+
+    private static String keyOf(Bson filter) {
+        BsonDocument document = filter.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+        return document.toJson();
+    }
+
+    /**
+     * 호출 전에 넣은 건이 모두 전송될 때까지 MONGO_FLUSH_TIMEOUT_SECONDS 까지만 기다린다. (실패한 건도 전송 끝으로 본다)
+     * - 시간 안에 끝나지 않으면 밀린 건수를 출력하고 false (남은 건은 전송 스레드가 계속 보낸다)
+     */
+    public boolean flush() {
+        long target = enqueued.get();
+        if (awaitCompleted(target, flushMillis)) return true;
+        System.err.println("⚠ DB 저장 지연: " + (target - completedCount()) + "건 전송 대기 중 (큐 " + queue.size() + "건), 기다리지 않고 진행");
+        return false;
+    }
+
+    private boolean awaitCompleted(long target, long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (progress) {
+            while (completed < target) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) return false;
+                try {
+                    progress.wait(Math.min(remaining, 1000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private void markCompleted(int count) {
+        synchronized (progress) {
+            completed += count;
+            progress.notifyAll();
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            try {
+                Pending first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed && queue.isEmpty()) return;
+                    continue;
+                }
+
+                List<Pending> taken = new ArrayList<>();
+                taken.add(first);
+                int size = batchSize;
+                queue.drainTo(taken, size - taken.size());
+
+                // 배치가 덜 찼으면 조금 더 모은다 (종료 중이면 바로 전송)
+                long lingerUntil = System.currentTimeMillis() + lingerMillis;
+                while (taken.size() < size && !closed) {
+                    long remaining = lingerUntil - System.currentTimeMillis();
+                    if (remaining <= 0) break;
+                    Pending next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+                    if (next == null) break;
+                    taken.add(next);
+                    queue.drainTo(taken, size - taken.size());
+                }
+
+                try {
+                    write(coalesce(taken), taken.size() == size);
+                } finally {
+                    markCompleted(taken.size());
+                }
+            } catch (InterruptedException e) {
+                // 종료 중이면 남은 건을 마저 보내고 끝낸다
+                if (closed && queue.isEmpty()) return;
+            } catch (Throwable t) {
+                System.err.println("DB 저장 오류: " + t.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 같은 필터는 마지막 갱신만 남긴다. (처음 나온 위치 유지)
+     */
+    private List<WriteModel<Document>> coalesce(List<Pending> taken) {
+        Map<String, Pending> latest = new LinkedHashMap<>();
+        for (Pending pending : taken) {
+            latest.put(pending.key, pending);
+        }
+        coalesced.addAndGet(taken.size() - latest.size());
+
+        List<WriteModel<Document>> models = new ArrayList<>(latest.size());
+        for (Pending pending : latest.values()) {
+            models.add(new UpdateOneModel<>(pending.filter, pending.update, new UpdateOptions().upsert(true)));
+        }
+        return models;
+    }
+
+    private void write(List<WriteModel<Document>> batch, boolean full) {
+        long start = System.currentTimeMillis();
+        try {
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    collection.bulkWrite(batch, new BulkWriteOptions().ordered(false));
+                    records.addAndGet(batch.size());
+                    return;
+                } catch (MongoBulkWriteException e) {
+                    // unordered 이므로 여기 나온 건만 실패, 나머지는 반영됨
+                    List<BulkWriteError> errors = e.getWriteErrors();
+                    records.addAndGet(batch.size() - errors.size());
+                    failures.addAndGet(errors.size());
+                    for (BulkWriteError error : errors) {
+                        WriteModel<Document> model = batch.get(error.getIndex());
+                        Bson filter = (model instanceof UpdateOneModel) ? ((UpdateOneModel<?>) model).getFilter() : null;
+                        System.err.println("DB 저장 오류 (" + filter + "): [" + error.getCode() + "] " + error.getMessage());
+                    }
+                    if (e.getWriteConcernError() != null) {
+                        System.err.println("DB 저장 오류 (write concern): " + e.getWriteConcernError().getMessage());
+                    }
+                    return;
+                } catch (MongoException e) {
+                    // 네트워크 오류 등 배치 전체 실패
+                    if (attempt >= writeRetries) {
+                        failures.addAndGet(batch.size());
+                        System.err.println("DB 저장 오류 (" + batch.size() + "건): " + e.getMessage());
+                        return;
+                    }
+                    System.err.println("⚠ DB 저장 재시도 (" + (attempt + 1) + "/" + writeRetries + "): " + e.getMessage());
+                    try {
+                        Thread.sleep(500L * (attempt + 1));
+                    } catch (InterruptedException ie) {
+                        // 종료 중 → 대기 없이 바로 다시 보낸다
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        } finally {
+            long elapsed = System.currentTimeMillis() - start;
+            batches.incrementAndGet();
+            writeMillis.addAndGet(elapsed);
+            adjustBatchSize(elapsed, full);
+        }
+    }
+
+    /**
+     * 전송 시간이 목표를 넘으면 배치를 줄이고, 꽉 찬 배치가 목표의 절반 안에 끝나면 늘린다.
+     */
+    private void adjustBatchSize(long elapsedMillis, boolean full) {
+        int current = batchSize;
+        if (elapsedMillis > targetWriteMillis && current > minBatchSize) {
+            batchSize = Math.max(minBatchSize, current / 2);
+        } else if (full && elapsedMillis * 2 < targetWriteMillis && current < maxBatchSize) {
+            batchSize = Math.min(maxBatchSize, current * 2);
+        }
+    }
+
+    /**
+     * 지난 호출 이후 저장 건수/배치 수/전송 시간을 출력용 문자열로 만들고 비운다. 저장한 건이 없으면 null.
+     */
+    public String drainSummary() {
+        long batchCount = batches.getAndSet(0);
+        if (batchCount == 0) return null;
+        long saved = records.getAndSet(0);
+        long failed = failures.getAndSet(0);
+        long merged = coalesced.getAndSet(0);
+        long millis = writeMillis.getAndSet(0);
+        long blocked = blockedMillis.getAndSet(0);
+        return "💾 DB 저장 " + saved + "건 (bulkWrite " + batchCount + "회, " + millis + "ms, 배치 크기 " + batchSize
+                + (merged > 0 ? ", 중복 갱신 합침 " + merged + "건" : "")
+                + (blocked > 0 ? ", 큐 대기 " + blocked + "ms" : "")
+                + (failed > 0 ? ", 실패 " + failed + "건" : "") + ")";
+    }
+
+    /**
+     * 새 건을 받지 않고, 남은 건을 MONGO_SHUTDOWN_SECONDS 안에서 모두 보낸 뒤 전송 스레드를 끝낸다.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+        }
+        long target = enqueued.get();
+        if (!awaitCompleted(target, shutdownMillis)) {
+            System.err.println("⚠ DB 저장 대기 시간 초과: " + (target - completedCount()) + "건 전송 못 함");
+        }
+        writer.interrupt();
+        String summary = drainSummary();
+        if (summary != null) {
+            System.out.println(summary);
+        }
+    }
+
+    private long completedCount() {
+        synchronized (progress) {
+            return completed;
+        }
+    }
+}
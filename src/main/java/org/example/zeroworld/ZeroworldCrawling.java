@@ -1,22 +1,33 @@
 package org.example.zeroworld;
 
-import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.model.UpdateOptions;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
 import org.bson.Document;
-import org.example.config.MongoConfig;
+import org.example.browser.PageSnapshot;
+import org.example.browser.Waits;
+import org.example.browser.WebDriverPool;
+import org.example.common.FanOut;
+import org.example.common.XhrCapture;
+import org.example.config.HttpConfig;
+import org.example.storage.ReservationSink;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.jsoup.nodes.Element;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.text.SimpleDateFormat;
 import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.*;
 
 public class ZeroworldCrawling {
@@ -41,14 +52,20 @@ public class ZeroworldCrawling {
     private static final String LOCATION = "강남"; // 이 값은 DB에 저장되는 값입니다.
     private static final String BRANCH = "강남점";
 
+    private static final String RESERVATION_URL = "https://zerogangnam.com/reservation";
+    // #themeTimeWrap 안에서 예약 가능한 시간 라벨 (선택된 active 와 disabled 입력은 제외)
+    private static final String AVAILABLE_TIME_SELECTOR =
+            "label.hover2:not(.active):has(input[name=reservationTime]:not([disabled]))";
+
     private final WebDriver driver;
-    private final MongoCollection<Document> reservationCollection;
+    private final ReservationSink reservationSink;
+
+    // 예약 페이지를 다시 불러와야 하는지 여부 (처음, 또는 오류 후)
+    private boolean pageStale = true;
 
     public ZeroworldCrawling(WebDriver driver) {
         this.driver = driver;
-        MongoClient client = MongoConfig.getMongoClient();
-        MongoDatabase db = client.getDatabase("scrd");
-        this.reservationCollection = db.getCollection("reservation");
+        this.reservationSink = ReservationSink.shared();
     }
 
     /**
@@ -62,15 +79,212 @@ public class ZeroworldCrawling {
 
     /**
      * 오늘부터 7일간 크롤링
+     * - 예약 페이지를 한 번 열어 날짜 선택 시 나가는 요청(날짜별 테마/시간 목록)을 기록하고,
+     *   같은 요청을 날짜만 바꿔 HTTP로 재전송 (테마 클릭/대기 없음)
+     * - 요청을 잡지 못했거나 응답 형식이 다르면 해당 날짜는 기존 클릭 방식으로 처리
      */
     public void crawlNext7Days() {
         Calendar cal = Calendar.getInstance();
         SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
+        List<String> dates = new ArrayList<>();
         for (int i = 0; i < 7; i++) {
-            String dateStr = sdf.format(cal.getTime());
-            crawlOneDay(dateStr);
+            dates.add(sdf.format(cal.getTime()));
             cal.add(Calendar.DAY_OF_MONTH, 1);
         }
+
+        ReplayTemplate template = captureDateRequest(dates.get(0));
+        List<Map<String, List<String>>> results = (template != null)
+                ? FanOut.mapOrdered(dates, HttpConfig.maxRequestsPerHost(), date -> replay(template, date))
+                : Collections.nCopies(dates.size(), null);
+
+        for (int i = 0; i < dates.size(); i++) {
+            String dateStr = dates.get(i);
+            Map<String, List<String>> themeTimes = results.get(i);
+            if (themeTimes == null) {
+                crawlOneDay(dateStr);
+                continue;
+            }
+
+            System.out.println("\n📍 " + BRANCH + " (" + dateStr + ")");
+            for (Map.Entry<String, List<String>> entry : themeTimes.entrySet()) {
+                String processedTitle = entry.getKey();
+                List<String> availableTimes = entry.getValue();
+                if (availableTimes.isEmpty()) {
+                    availableTimes.add("예약불가");
+                }
+                saveToDatabase(BRAND, LOCATION, BRANCH, processedTitle, getUserDefinedId(processedTitle), dateStr, availableTimes);
+                System.out.println(processedTitle + " : " + availableTimes);
+            }
+        }
+    }
+
+    /**
+     * 재전송할 요청 (기록 시 사용한 날짜 문자열을 대상 날짜로 바꿔서 보냄)
+     */
+    private static class ReplayTemplate {
+        XhrCapture.Exchange exchange;
+        String capturedDate;
+        String cookieHeader;
+        ReplayTemplate(XhrCapture.Exchange exchange, String capturedDate, String cookieHeader) {
+            this.exchange = exchange;
+            this.capturedDate = capturedDate;
+            this.cookieHeader = cookieHeader;
+        }
+    }
+
+    /**
+     * 예약 페이지에서 날짜를 한 번 선택하고, 날짜별 테마/시간 목록을 돌려주는 요청을 찾는다. 실패 시 null.
+     */
+    private ReplayTemplate captureDateRequest(String dateStr) {
+        try {
+            ensureReservationPage();
+
+            XhrCapture.install(driver);
+            if (!selectDateOnCalendar(dateStr)) {
+                pageStale = true;
+                return null;
+            }
+            new WebDriverWait(driver, Duration.ofSeconds(10))
+                    .until(ExpectedConditions.numberOfElementsToBeMoreThan(
+                            By.cssSelector("#themeChoice label.hover2"), 0
+                    ));
+
+            Map<XhrCapture.Exchange, Map<String, List<String>>> candidates = new LinkedHashMap<>();
+            for (XhrCapture.Exchange exchange : XhrCapture.drain(driver)) {
+                if (exchange.status != 200 || exchange.responseText == null) continue;
+                if (!exchange.url.contains(dateStr)
+                        && (exchange.requestBody == null || !exchange.requestBody.contains(dateStr))) continue;
+                Map<String, List<String>> parsed = parseThemeTimes(exchange.responseText, dateStr);
+                if (parsed != null) {
+                    candidates.put(exchange, parsed);
+                }
+            }
+            if (candidates.isEmpty()) {
+                System.out.println("ℹ️ 날짜별 테마/시간 요청을 찾지 못해 클릭 방식으로 진행합니다.");
+                return null;
+            }
+
+            // 응답 형식을 추측해서 파싱하므로, 같은 날짜를 화면에서 읽은 결과와 같을 때만 재전송에 쓴다
+            Map<String, List<String>> onPage = readThemeTimesFromPage();
+            for (Map.Entry<XhrCapture.Exchange, Map<String, List<String>>> candidate : candidates.entrySet()) {
+                if (sameAvailability(candidate.getValue(), onPage)) {
+                    return new ReplayTemplate(candidate.getKey(), dateStr, XhrCapture.cookieHeader(driver));
+                }
+            }
+            System.out.println("ℹ️ 날짜별 테마/시간 응답이 화면과 달라 클릭 방식으로 진행합니다.");
+        } catch (Exception e) {
+            System.err.println("⚠ captureDateRequest() 예외 발생: " + e.getMessage());
+            pageStale = true;
+        }
+        return null;
+    }
+
+    /**
+     * 기록한 요청을 날짜만 바꿔서 다시 보내고 테마별 예약 가능 시간을 구한다. 실패 시 null.
+     */
+    private Map<String, List<String>> replay(ReplayTemplate template, String dateStr) {
+        XhrCapture.Exchange exchange = template.exchange;
+        String url = exchange.url.replace(template.capturedDate, dateStr);
+
+        Request.Builder builder = new Request.Builder().url(url);
+        String contentType = "application/x-www-form-urlencoded; charset=UTF-8";
+        for (Map.Entry<String, String> header : exchange.headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase("Content-Type")) {
+                contentType = header.getValue();
+            } else {
+                builder.header(header.getKey(), header.getValue());
+            }
+        }
+        builder.header("Cookie", template.cookieHeader)
+                .header("Referer", RESERVATION_URL)
+                .header("X-Requested-With", "XMLHttpRequest");
+
+        if (exchange.method.equals("GET")) {
+            builder.get();
+        } else {
+            String body = (exchange.requestBody != null) ? exchange.requestBody.replace(template.capturedDate, dateStr) : "";
+            builder.method(exchange.method, RequestBody.create(body, MediaType.parse(contentType)));
+        }
+
+        String responseText = HttpConfig.fetchString(builder.build());
+        return (responseText != null) ? parseThemeTimes(responseText, dateStr) : null;
+    }
+
+    /**
+     * 재전송 응답 파싱 결과와 화면에서 읽은 결과가 같은지 (테마명과 예약 가능 시간, 순서 무관)
+     * - 화면 쪽의 "예약불가" 는 빈 목록으로 보고, "오류" 가 있으면 다르다고 본다.
+     */
+    private boolean sameAvailability(Map<String, List<String>> parsed, Map<String, List<String>> onPage) {
+        if (onPage.isEmpty() || !parsed.keySet().equals(onPage.keySet())) return false;
+        for (Map.Entry<String, List<String>> entry : onPage.entrySet()) {
+            List<String> pageTimes = entry.getValue();
+            if (pageTimes.contains("오류")) return false;
+            Set<String> expected = new HashSet<>(pageTimes);
+            expected.remove("예약불가");
+            if (!expected.equals(new HashSet<>(parsed.get(entry.getKey())))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 날짜별 테마/시간 응답(JSON) 파싱. 형식이 다르면 null.
+     * - data: [{PK, title}, ...] 테마 목록
+     * - times: {테마PK: [{time: "10:20:00", reservation: true/false}, ...]} (reservation=true 는 예약 완료)
+     * - 화면과 같이 예약 완료/비활성(disabled) 시간과 이미 지난 시간은 제외한다.
+     */
+    private Map<String, List<String>> parseThemeTimes(String responseText, String dateStr) {
+        try {
+            JSONObject json = new JSONObject(responseText);
+            JSONArray themes = json.getJSONArray("data");
+            JSONObject times = json.getJSONObject("times");
+            if (themes.isEmpty()) return null;
+            LocalDate date = LocalDate.parse(dateStr);
+            LocalDateTime now = LocalDateTime.now();
+
+            Map<String, List<String>> result = new LinkedHashMap<>();
+            for (int i = 0; i < themes.length(); i++) {
+                JSONObject theme = themes.getJSONObject(i);
+                String processedTitle = normalizeTitle(theme.getString("title"));
+
+                List<String> availableTimes = new ArrayList<>();
+                JSONArray slots = times.optJSONArray(String.valueOf(theme.get("PK")));
+                if (slots != null) {
+                    for (int j = 0; j < slots.length(); j++) {
+                        JSONObject slot = slots.getJSONObject(j);
+                        if (slot.optBoolean("reservation", true) || slot.optBoolean("disabled", false)) continue;
+                        String time = slot.getString("time"); // "10:20:00"
+                        if (LocalDateTime.of(date, LocalTime.parse(time)).isBefore(now)) continue;
+                        availableTimes.add(time.length() >= 5 ? time.substring(0, 5) : time);
+                    }
+                }
+                result.put(processedTitle, availableTimes);
+            }
+            return result;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 예약 페이지가 열려 있지 않거나 상태가 어긋났을 때만 다시 불러온다.
+     * - 날짜 이동은 페이지의 달력으로 처리하므로 정상이라면 한 번만 로드
+     */
+    private void ensureReservationPage() {
+        if (!pageStale && isCalendarVisible()) return;
+
+        driver.get(RESERVATION_URL);
+        new WebDriverWait(driver, Duration.ofSeconds(10))
+                .until(ExpectedConditions.visibilityOfElementLocated(By.id("calendar")));
+        pageStale = false;
+    }
+
+    private boolean isCalendarVisible() {
+        try {
+            List<WebElement> calendars = driver.findElements(By.id("calendar"));
+            return !calendars.isEmpty() && calendars.get(0).isDisplayed();
+        } catch (WebDriverException e) {
+            return false;
+        }
     }
 
     /**
@@ -78,15 +292,25 @@ public class ZeroworldCrawling {
      */
     public void crawlOneDay(String dateStr) {
         try {
-            // 1) 예약 페이지 접속
-            driver.get("https://zerogangnam.com/reservation");
+            // 1) 예약 페이지 (이미 열려 있으면 그대로 사용)
+            ensureReservationPage();
 
-            // 2) 달력이 로드될 때까지 대기
-            new WebDriverWait(driver, Duration.ofSeconds(10))
-                    .until(ExpectedConditions.visibilityOfElementLocated(By.id("calendar")));
+            // 2) 이전 날짜의 테마 목록이 있으면 새 목록으로 바뀌는지 확인하기 위해 기억
+            List<WebElement> previousThemes = driver.findElements(By.cssSelector("#themeChoice label.hover2"));
 
-            // 3) 달력에서 해당 날짜 클릭
-            selectDateOnCalendar(dateStr);
+            // 3) 달력에서 해당 날짜 클릭 (실패하면 이전 날짜의 목록이 남아 있으므로 저장하지 않는다)
+            if (!selectDateOnCalendar(dateStr)) {
+                pageStale = true;
+                return;
+            }
+            if (!previousThemes.isEmpty()) {
+                try {
+                    new WebDriverWait(driver, Duration.ofSeconds(3))
+                            .until(ExpectedConditions.stalenessOf(previousThemes.get(0)));
+                } catch (TimeoutException ignored) {
+                    // 같은 요소를 재사용하는 경우
+                }
+            }
 
             // 4) 테마 목록 (#themeChoice) 로드 대기
             new WebDriverWait(driver, Duration.ofSeconds(10))
@@ -96,61 +320,92 @@ public class ZeroworldCrawling {
                             By.cssSelector("#themeChoice label.hover2"), 0
                     ));
 
-            // 5) 헤더 출력: "📍 [지점] ([날짜])"
+            // 5) 각 테마를 눌러 예약 가능한 시간 읽기
+            Map<String, List<String>> themeTimes = readThemeTimesFromPage();
+
+            // 6) 헤더 출력: "📍 [지점] ([날짜])"
             System.out.println("\n📍 " + BRANCH + " (" + dateStr + ")");
 
-            // 6) 테마 라디오 버튼들 찾기
-            List<WebElement> themeLabels = driver.findElements(By.cssSelector("#themeChoice label.hover2"));
+            for (Map.Entry<String, List<String>> entry : themeTimes.entrySet()) {
+                String processedTitle = entry.getKey();
+                List<String> availableTimes = entry.getValue();
 
-            // 7) 각 테마 처리
-            for (WebElement themeLabel : themeLabels) {
-                WebElement radio = themeLabel.findElement(By.cssSelector("input[type='radio']"));
+                // 7) DB 저장: 사용자 정의 ID 적용
+                int customId = getUserDefinedId(processedTitle);
+                saveToDatabase(BRAND, LOCATION, BRANCH, processedTitle, customId, dateStr, availableTimes);
+
+                // 8) 콘솔 출력: "[테마명] : [예약시간들]"
+                System.out.println( processedTitle +  " : " + availableTimes);
+            }
+        } catch (Exception e) {
+            System.err.println("[오류] " + dateStr + " 처리 중: " + e.getMessage());
+            // 다음 날짜는 페이지를 다시 불러와서 처리
+            pageStale = true;
+        }
+    }
+
+    /**
+     * 현재 선택된 날짜의 테마를 하나씩 눌러 테마별 예약 가능 시간을 읽는다. (테마명 → 시간 목록)
+     */
+    private Map<String, List<String>> readThemeTimesFromPage() {
+        Map<String, List<String>> result = new LinkedHashMap<>();
+        // 테마 라디오 버튼들 찾기
+        List<WebElement> themeLabels = driver.findElements(By.cssSelector("#themeChoice label.hover2"));
+
+        // 각 테마 처리
+        for (WebElement themeLabel : themeLabels) {
+            WebElement radio = themeLabel.findElement(By.cssSelector("input[type='radio']"));
 // radio value는 참고용
-                String themeValue = radio.getAttribute("value");
+            String themeValue = radio.getAttribute("value");
 // 테마 라벨 처리 전에 raw 텍스트 확인
-                String rawThemeTitle = themeLabel.getText().trim();
-                if(rawThemeTitle.isEmpty()){
-                    // innerText 혹은 textContent로 시도
-                    rawThemeTitle = themeLabel.getAttribute("innerText");
-                }
-                String processedTitle = normalizeTitle(rawThemeTitle);
+            String rawThemeTitle = themeLabel.getText().trim();
+            if(rawThemeTitle.isEmpty()){
+                // innerText 혹은 textContent로 시도
+                rawThemeTitle = themeLabel.getAttribute("innerText");
+            }
+            String processedTitle = normalizeTitle(rawThemeTitle);
 
+            // 이전 테마(또는 이전 날짜)의 시간 목록이 새 목록으로 바뀌는지 확인하기 위해 기억
+            List<WebElement> previousTimes = driver.findElements(By.cssSelector("#themeTimeWrap label.hover2"));
 
-                // 1. 헤더(방해 요소) 숨기기
-                ((JavascriptExecutor) driver).executeScript(
-                        "document.querySelector('div.container.active1.clear-b').style.display='none';"
-                );
+            // 1. 헤더(방해 요소) 숨기기
+            ((JavascriptExecutor) driver).executeScript(
+                    "document.querySelector('div.container.active1.clear-b').style.display='none';"
+            );
 // 2. 클릭할 요소가 보이도록 스크롤
-                ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", themeLabel);
+            ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", themeLabel);
 // 3. JavaScript 강제 클릭
-                ((JavascriptExecutor) driver).executeScript("arguments[0].click();", themeLabel);
-
-
-
-                // 8) 예약 가능한 시간 목록 대기 (#themeTimeWrap)
-                new WebDriverWait(driver, Duration.ofSeconds(10))
-                        .until(ExpectedConditions.visibilityOfElementLocated(By.id("themeTimeWrap")));
-                new WebDriverWait(driver, Duration.ofSeconds(10))
-                        .until(ExpectedConditions.numberOfElementsToBeMoreThan(
-                                By.cssSelector("#themeTimeWrap label.hover2"), 0
-                        ));
+            ((JavascriptExecutor) driver).executeScript("arguments[0].click();", themeLabel);
+
+            if (!previousTimes.isEmpty()) {
+                try {
+                    new WebDriverWait(driver, Duration.ofSeconds(3))
+                            .until(ExpectedConditions.stalenessOf(previousTimes.get(0)));
+                } catch (TimeoutException ignored) {
+                    // 같은 요소를 재사용하는 경우
+                }
+            }
 
-                // 9) 예약 가능한 시간 파싱
-                List<String> availableTimes = fetchAvailableTimes();
+            // 예약 가능한 시간 목록 대기 (#themeTimeWrap)
+            new WebDriverWait(driver, Duration.ofSeconds(10))
+                    .until(ExpectedConditions.visibilityOfElementLocated(By.id("themeTimeWrap")));
+            new WebDriverWait(driver, Duration.ofSeconds(10))
+                    .until(ExpectedConditions.numberOfElementsToBeMoreThan(
+                            By.cssSelector("#themeTimeWrap label.hover2"), 0
+                    ));
 
-                // 10) DB 저장: 사용자 정의 ID 적용
-                int customId = getUserDefinedId(processedTitle);
-                saveToDatabase(BRAND, LOCATION, BRANCH, processedTitle, customId, dateStr, availableTimes);
+            // 예약 가능한 시간 파싱
+            List<String> availableTimes = fetchAvailableTimes();
 
-                // 11) 콘솔 출력: " -> [테마명] ([radio value]) : [예약시간들]"
-                System.out.println( processedTitle +  " : " + availableTimes);
-            }
-        } catch (Exception e) {
-            System.err.println("[오류] " + dateStr + " 처리 중: " + e.getMessage());
+            result.put(processedTitle, availableTimes);
         }
+        return result;
     }
 
-private void selectDateOnCalendar(String dateStr) {
+/**
+ * 달력에서 날짜를 클릭한다. 날짜 칸이 없거나 비활성화되어 클릭하지 못했으면 false.
+ */
+private boolean selectDateOnCalendar(String dateStr) {
     try {
         String[] parts = dateStr.split("-");
         int year = Integer.parseInt(parts[0]);
@@ -158,6 +413,13 @@ private void selectDateOnCalendar(String dateStr) {
         int day = Integer.parseInt(parts[2]);
         int dataMonth = month - 1; // 예: 3월 -> data-month="2"
 
+        // 달력이 이전 달을 보고 있으면 페이지의 다음 달 버튼으로 넘긴다 (새로고침 없이)
+        for (int attempt = 0; attempt < 2 && findDayCell(year, dataMonth, day) == null; attempt++) {
+            List<WebElement> nextButtons = driver.findElements(By.cssSelector(".datepicker--nav-action[data-action='next']"));
+            if (nextButtons.isEmpty()) break;
+            ((JavascriptExecutor) driver).executeScript("arguments[0].click();", nextButtons.get(0));
+        }
+
         List<WebElement> dayCells = driver.findElements(By.cssSelector(".datepicker--cell.datepicker--cell-day"));
 
         for (WebElement cell : dayCells) {
@@ -173,33 +435,39 @@ private void selectDateOnCalendar(String dateStr) {
                     && String.valueOf(dataMonth).equals(cellMonth)
                     && String.valueOf(day).equals(cellDate)) {
 
-                // 📌 스크롤하여 날짜 보이게 함
-                ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", cell);
-                Thread.sleep(500); // 0.5초 대기
-
-                // 📌 JavaScript로 강제 클릭 (추가된 부분)
+                // 📌 JavaScript로 강제 클릭 (화면에 보이지 않아도 클릭되므로 스크롤 불필요)
                 ((JavascriptExecutor) driver).executeScript("arguments[0].click();", cell);
-                Thread.sleep(1000); // 클릭 후 대기
 
                 // 📌 팝업 닫기 시도 (추가된 부분)
 //                handlePopups();
 
-                // 📌 클릭 후 `themeChoice` 요소가 나타날 때까지 최대 15초 대기
-                new WebDriverWait(driver, Duration.ofSeconds(15))
-                        .until(ExpectedConditions.visibilityOfElementLocated(By.id("themeChoice")));
+                // 📌 클릭 후 `themeChoice` 요소가 나타나는 즉시 진행 (최대 15초)
+                Waits.until(driver, "제로월드 날짜 선택", Duration.ofSeconds(15),
+                        ExpectedConditions.visibilityOfElementLocated(By.id("themeChoice")));
 
 //                System.out.println("✅ 날짜 클릭 성공: " + dateStr);
-                return;
+                return true;
             }
         }
         System.out.println("❌ 날짜 클릭 실패 또는 해당 날짜가 비활성화됨: " + dateStr);
     } catch (Exception e) {
         System.err.println("⚠ selectDateOnCalendar() 예외 발생: " + e.getMessage());
     }
+    return false;
 }
 
 
 
+    /**
+     * 달력에 표시된 날짜 셀 (없으면 null)
+     */
+    private WebElement findDayCell(int year, int dataMonth, int day) {
+        String selector = ".datepicker--cell.datepicker--cell-day[data-year='" + year
+                + "'][data-month='" + dataMonth + "'][data-date='" + day + "']";
+        List<WebElement> cells = driver.findElements(By.cssSelector(selector));
+        return cells.isEmpty() ? null : cells.get(0);
+    }
+
     /**
      * #themeTimeWrap 내의 label들을 스캔하여 예약 가능한 시간 추출
      */
@@ -215,18 +483,12 @@ private void selectDateOnCalendar(String dateStr) {
                             By.cssSelector("#themeTimeWrap label.hover2"), 0
                     ));
 
-            // 2️⃣ 예약 가능한 시간 목록 가져오기
-            List<WebElement> timeLabels = driver.findElements(By.cssSelector("#themeTimeWrap label.hover2"));
-            for (WebElement lbl : timeLabels) {
-                WebElement input = lbl.findElement(By.cssSelector("input[name='reservationTime']"));
-                boolean isDisabled = (input.getAttribute("disabled") != null);
-                boolean hasActiveClass = lbl.getAttribute("class").contains("active");
-
-                // 클릭 가능하면, 텍스트를 가져와서 형식을 변환한 후 리스트에 추가
-                if (!isDisabled && !hasActiveClass) {
-                    String rawTime = lbl.getText().trim();
-                    String formattedTime = formatTime(rawTime);
-                    result.add(formattedTime);
+            // 2️⃣ 시간 목록을 한 번에 받아서 예약 가능한 시간만 추출 (라벨별 chromedriver 왕복 없음)
+            Element timeWrap = PageSnapshot.element(driver, "#themeTimeWrap");
+            if (timeWrap != null) {
+                for (Element lbl : timeWrap.select(AVAILABLE_TIME_SELECTOR)) {
+                    // 클릭 가능하면, 텍스트를 가져와서 형식을 변환한 후 리스트에 추가
+                    result.add(formatTime(lbl.text().trim()));
                 }
             }
 
@@ -290,7 +552,7 @@ private void selectDateOnCalendar(String dateStr) {
                     .append("updatedAt", new Date())
                     .append("expireAt", expireAt);
             Document update = new Document("$set", doc);
-            reservationCollection.updateOne(filter, update, new UpdateOptions().upsert(true));
+            reservationSink.upsert(filter, update);
         } catch (Exception e) {
             System.err.println("DB 저장 오류: " + e.getMessage());
         }
@@ -329,26 +591,9 @@ private void selectDateOnCalendar(String dateStr) {
     }
 
     public static void main(String[] args) {
-        // System.setProperty("webdriver.chrome.driver", "/Users/pro/Downloads/chromedriver-mac-x64/chromedriver");
-        System.setProperty("webdriver.chrome.driver", "/usr/local/bin/chromedriver");
-
-        // Chrome 옵션 설정
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments("--headless");
-        options.addArguments("--no-sandbox");
-        options.addArguments("--disable-dev-shm-usage");
-        options.addArguments("--disable-gpu");
-        options.addArguments("--remote-allow-origins=*");
-        options.addArguments("--disable-background-networking"); // 추가
-//        options.addArguments("--user-data-dir=/dev/shm/chrome-user-data");
-
-        WebDriver driver = new ChromeDriver(options);
-
-        try {
-            ZeroworldCrawling crawler = new ZeroworldCrawling(driver);
+        try (WebDriverPool.Lease lease = WebDriverPool.shared().lease()) {
+            ZeroworldCrawling crawler = new ZeroworldCrawling(lease.driver());
             crawler.crawlNext7Days();
-        } finally {
-            driver.quit();
         }
     }
 }